@@ -11,6 +11,8 @@ public class BitUtils {
 		return DE_BRUIJN_HASH[((numberWithOneBitSet * DE_BRUIJN_SEQUENCE) & SHORT_MASK) >>> 12];
 	}
 
+	/** @deprecated Boxes every index; use {@link RankDecoder#kickers(long, int[])} or {@link RankDecoder#append(StringBuilder, long)} instead. */
+	@Deprecated
 	public static HashSet<Short> toSet(short bitVector) {
 		HashSet<Short> set = new HashSet<>();
 		while (bitVector != 0) {
@@ -0,0 +1,105 @@
+package dk.olehougaard.poker;
+
+import static dk.olehougaard.poker.Evaluator.BOAT_MASK;
+import static dk.olehougaard.poker.Evaluator.FLUSH_MASK;
+import static dk.olehougaard.poker.Evaluator.QUAD_MASK;
+import static dk.olehougaard.poker.Evaluator.SF_MASK;
+import static dk.olehougaard.poker.Evaluator.STRAIGHT_MASK;
+import static dk.olehougaard.poker.Hand.BITS_PER_SUIT;
+import static dk.olehougaard.poker.Hand.CLUB_MASK;
+
+public class BoardContext {
+	public static final int MIN_BOARD = 3;
+	public static final int MAX_BOARD = 5;
+	
+	private static final int SUITS = 4;
+	private static final int FLUSH_DRAW = 3;
+	
+	private long board;
+	private int flushShift;
+	private long flushLane;
+	private boolean straightPossible;
+	private long values;
+	private long singles;
+	private long pairs;
+	private long trips;
+	private long quads;
+	
+	public BoardContext(long board) {
+		setBoard(board);
+	}
+	
+	public long getBoard() {
+		return board;
+	}
+	
+	public void setBoard(long board) {
+		final int size = Long.bitCount(board);
+		if (size < MIN_BOARD || size > MAX_BOARD || (board & ~Hand.HAND_MASK) != 0) throw new IllegalArgumentException("Not a board: " + Long.toHexString(board));
+		this.board = board;
+		flushShift = -1;
+		flushLane = 0L;
+		for (int suit = 0; suit < SUITS; suit++) {
+			final long lane = (board >>> suit * BITS_PER_SUIT) & CLUB_MASK;
+			if (Long.bitCount(lane) >= FLUSH_DRAW) {
+				flushShift = suit * BITS_PER_SUIT;
+				flushLane = lane;
+			}
+		}
+		values = Evaluator.valuesOnly(board);
+		straightPossible = false;
+		final long withLowAce = values | (values >>> (Hand.ACE_INDEX - Hand.LOW_ACE_INDEX));
+		for (long pattern = Evaluator.BROADWAY_PATTERN; pattern >= Evaluator.WHEEL_PATTERN; pattern >>= 1) {
+			if (Long.bitCount(pattern & withLowAce) >= FLUSH_DRAW) straightPossible = true;
+		}
+		singles = pairs = trips = quads = 0L;
+		for (long cards = board; cards != 0; cards &= cards - 1) {
+			add(Evaluator.valuesOnly(cards & -cards));
+		}
+	}
+	
+	private void add(long rank) {
+		quads |= trips & rank;
+		trips = (trips & ~rank) | (pairs & rank);
+		pairs = (pairs & ~rank) | (singles & rank);
+		singles = (singles & ~rank) | (rank & ~(singles | pairs | trips | quads));
+	}
+	
+	public long evaluate(long holeCards) {
+		if ((holeCards & board) != 0) throw new IllegalArgumentException("Hole cards on the board: " + Long.toHexString(holeCards & board));
+		final long rank = evaluateStages(holeCards);
+		if (Metrics.ENABLED) Metrics.evaluated(rank);
+		return rank;
+	}
+	
+	private long evaluateStages(long holeCards) {
+		long flush = 0L;
+		if (flushShift >= 0) {
+			final long lane = flushLane | ((holeCards >>> flushShift) & CLUB_MASK);
+			if (Long.bitCount(lane) >= 5) {
+				final long sf = TableEvaluator.straight(lane);
+				if (sf != 0) return SF_MASK | sf;
+				flush = FLUSH_MASK | TableEvaluator.flush(lane);
+			}
+		}
+		final long first = Evaluator.valuesOnly(holeCards & -holeCards);
+		final long second = Evaluator.valuesOnly(holeCards & (holeCards - 1));
+		long q = quads | (trips & first);
+		long t = (trips & ~first) | (pairs & first);
+		long p = (pairs & ~first) | (singles & first);
+		long s = (singles & ~first) | (first & ~(singles | pairs | trips | quads));
+		final long present = s | p | t | q;
+		q |= t & second;
+		t = (t & ~second) | (p & second);
+		p = (p & ~second) | (s & second);
+		s = (s & ~second) | (second & ~present);
+		final long paired = Evaluator.evaluateMultiplicities(s, p, t, q);
+		if ((paired & (QUAD_MASK | BOAT_MASK)) != 0) return paired;
+		if (flush != 0) return flush;
+		if (straightPossible) {
+			final long straight = TableEvaluator.straight(values | first | second);
+			if (straight != 0) return STRAIGHT_MASK | straight;
+		}
+		return paired;
+	}
+}
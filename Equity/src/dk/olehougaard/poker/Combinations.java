@@ -0,0 +1,144 @@
+package dk.olehougaard.poker;
+
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+public class Combinations {
+	public static final int MAX_N = 64;
+	
+	private static final long[][] BINOMIAL = new long[MAX_N + 1][MAX_N + 1];
+	static {
+		for (int n = 0; n <= MAX_N; n++) {
+			BINOMIAL[n][0] = 1;
+			for (int k = 1; k <= n; k++) {
+				BINOMIAL[n][k] = BINOMIAL[n - 1][k - 1] + BINOMIAL[n - 1][k];
+			}
+		}
+	}
+	
+	public static long binomial(int n, int k) {
+		if (k < 0 || n < 0 || k > n) return 0L;
+		return BINOMIAL[n][k];
+	}
+	
+	public static long[] cards(long mask) {
+		long[] cards = new long[Long.bitCount(mask)];
+		for (int i = 0; mask != 0; i++) {
+			cards[i] = mask & -mask;
+			mask &= mask - 1;
+		}
+		return cards;
+	}
+	
+	private static void unrank(long rank, int[] positions) {
+		for (int k = positions.length; k > 0; k--) {
+			int n = k - 1;
+			while (BINOMIAL[n + 1][k] <= rank) n++;
+			positions[k - 1] = n;
+			rank -= BINOMIAL[n][k];
+		}
+	}
+	
+	public static long lowest(long mask, int count) {
+		long lowest = 0L;
+		for (; count > 0; count--) {
+			lowest |= mask & -mask;
+			mask &= mask - 1;
+		}
+		return lowest;
+	}
+	
+	public static long unrankSubset(long rank, long mask, int k) {
+		final int n = Long.bitCount(mask);
+		if (k < 0 || k > n || rank < 0 || rank >= BINOMIAL[n][k]) throw new IllegalArgumentException("No subset of " + k + " cards has rank " + rank);
+		final int[] positions = new int[k];
+		unrank(rank, positions);
+		final long[] cards = cards(mask);
+		long subset = 0L;
+		for (int position : positions) subset |= cards[position];
+		return subset;
+	}
+	
+	public static long nextSubset(long subset, long mask) {
+		final long lowest = subset & -subset;
+		final long carried = ((subset | ~mask) + lowest) & mask;
+		if (carried == 0) return 0L;
+		return carried | lowest(mask, Long.bitCount(subset & ~carried) - 1);
+	}
+	
+	public static Spliterator.OfLong spliterator(long mask, int k) {
+		final long count = binomial(Long.bitCount(mask), k);
+		if (count == 0) throw new IllegalArgumentException("No subsets of " + k + " cards in " + Long.toHexString(mask));
+		return new SubsetSpliterator(mask, k, 0, count);
+	}
+	
+	public static LongStream stream(long mask, int k) {
+		return StreamSupport.longStream(spliterator(mask, k), false);
+	}
+	
+	private static class SubsetSpliterator implements Spliterator.OfLong {
+		private static final long MINIMUM_SPLIT = 1 << 10;
+		
+		private final long mask;
+		private final int k;
+		private long subset;
+		private long index;
+		private final long end;
+		
+		SubsetSpliterator(long mask, int k, long from, long to) {
+			this.mask = mask;
+			this.k = k;
+			this.subset = unrankSubset(from, mask, k);
+			this.index = from;
+			this.end = to;
+		}
+		
+		private SubsetSpliterator(long mask, int k, long subset, long from, long to) {
+			this.mask = mask;
+			this.k = k;
+			this.subset = subset;
+			this.index = from;
+			this.end = to;
+		}
+		
+		@Override
+		public boolean tryAdvance(LongConsumer action) {
+			if (index >= end) return false;
+			action.accept(subset);
+			if (++index < end) subset = nextSubset(subset, mask);
+			return true;
+		}
+		
+		@Override
+		public void forEachRemaining(LongConsumer action) {
+			long subset = this.subset;
+			for (long i = index; i < end; i++) {
+				action.accept(subset);
+				subset = nextSubset(subset, mask);
+			}
+			index = end;
+		}
+		
+		@Override
+		public Spliterator.OfLong trySplit() {
+			if (end - index < 2 * MINIMUM_SPLIT) return null;
+			final long middle = (index + end) >>> 1;
+			final SubsetSpliterator low = new SubsetSpliterator(mask, k, subset, index, middle);
+			subset = unrankSubset(middle, mask, k);
+			index = middle;
+			return low;
+		}
+		
+		@Override
+		public long estimateSize() {
+			return end - index;
+		}
+		
+		@Override
+		public int characteristics() {
+			return ORDERED | DISTINCT | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+		}
+	}
+}
@@ -0,0 +1,161 @@
+package dk.olehougaard.poker;
+
+import static dk.olehougaard.poker.Hand.ACE_INDEX;
+import static dk.olehougaard.poker.Hand.BITS_PER_SUIT;
+import static dk.olehougaard.poker.Hand.DEUCE_INDEX;
+import static dk.olehougaard.poker.Hand.FIVE_INDEX;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+public class Dealer {
+	public static final int SUITS = 4;
+	public static final int RANKS = ACE_INDEX - DEUCE_INDEX + 1;
+	public static final int CATEGORIES = HandCategory.values().length;
+	
+	private static final long[] CARDS = Combinations.cards(Hand.HAND_MASK);
+	private static final int STRAIGHTS = ACE_INDEX - FIVE_INDEX + 1;
+	private static final long STRAIGHT_RANKS = (1L << 5) - 1;
+	private static final int MAX_ATTEMPTS = 1 << 20;
+	
+	private final SplittableRandom random;
+	private final long dead;
+	private final double[] cumulativeWeights;
+	
+	public Dealer(SplittableRandom random) {
+		this(random, 0L);
+	}
+	
+	public Dealer(SplittableRandom random, long dead) {
+		this(random, dead, null);
+	}
+	
+	public Dealer(SplittableRandom random, long dead, double[] categoryWeights) {
+		if ((dead & ~Hand.HAND_MASK) != 0) throw new IllegalArgumentException("Not a set of cards: " + Long.toHexString(dead));
+		this.random = random;
+		this.dead = dead;
+		this.cumulativeWeights = categoryWeights == null ? null : cumulate(categoryWeights);
+	}
+	
+	public static double[] uniformCategoryWeights() {
+		double[] weights = new double[CATEGORIES];
+		Arrays.fill(weights, 1.0);
+		return weights;
+	}
+	
+	private static double[] cumulate(double[] weights) {
+		if (weights.length != CATEGORIES) throw new IllegalArgumentException("Need a weight for each of the " + CATEGORIES + " categories");
+		double[] cumulative = new double[CATEGORIES];
+		double total = 0.0;
+		for (int i = 0; i < CATEGORIES; i++) {
+			if (!(weights[i] >= 0)) throw new IllegalArgumentException("Negative weight for " + HandCategory.valueOf(i));
+			total += weights[i];
+			cumulative[i] = total;
+		}
+		if (total <= 0) throw new IllegalArgumentException("No category has a positive weight");
+		return cumulative;
+	}
+	
+	public static long dealCard(SplittableRandom random, long used) {
+		long card;
+		do {
+			card = CARDS[random.nextInt(CARDS.length)];
+		} while ((card & used) != 0);
+		return card;
+	}
+	
+	public long dealCard(long used) {
+		return dealCard(random, used | dead);
+	}
+	
+	public long deal(int cards) {
+		return deal(cards, 0L);
+	}
+	
+	public long deal(int cards, long used) {
+		used |= dead;
+		if (cards < 0 || Long.bitCount(Hand.HAND_MASK & ~used) < cards) throw new IllegalArgumentException("Cannot deal " + cards + " cards");
+		return fill(0L, cards, used);
+	}
+	
+	private long fill(long hand, int cards, long used) {
+		used |= hand;
+		for (int i = Long.bitCount(hand); i < cards; i++) {
+			final long card = dealCard(random, used);
+			used |= card;
+			hand |= card;
+		}
+		return hand;
+	}
+	
+	public long dealWeighted(int cards) {
+		if (cumulativeWeights == null) throw new IllegalStateException("No category weights");
+		final double x = random.nextDouble() * cumulativeWeights[CATEGORIES - 1];
+		int category = 0;
+		while (cumulativeWeights[category] <= x) category++;
+		return deal(HandCategory.valueOf(category), cards, 0L);
+	}
+	
+	public long deal(HandCategory category, int cards, long used) {
+		if (cards < 5 || cards > 7) throw new IllegalArgumentException("Categories need hands of 5 to 7 cards, not " + cards);
+		used |= dead;
+		if (Long.bitCount(Hand.HAND_MASK & ~used) < cards) throw new IllegalArgumentException("Cannot deal " + cards + " cards");
+		for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+			final long seed = seed(category);
+			if ((seed & used) != 0) continue;
+			final long hand = fill(seed, cards, used);
+			if (HandCategory.ordinalOf(Evaluator.evaluateAny(hand)) == category.ordinal()) return hand;
+		}
+		throw new IllegalStateException("No " + category + " of " + cards + " cards found around the used cards: " + Long.toHexString(used));
+	}
+	
+	private long seed(HandCategory category) {
+		final int first = random.nextInt(RANKS);
+		final int second = (first + 1 + random.nextInt(RANKS - 1)) % RANKS;
+		switch (category) {
+		case STRAIGHT_FLUSH:
+			return straight(random.nextInt(STRAIGHTS)) << random.nextInt(SUITS) * BITS_PER_SUIT;
+		case QUADS:
+			return sameRank(first, 4);
+		case BOAT:
+			return sameRank(first, 3) | sameRank(second, 2);
+		case FLUSH:
+			long ranks = 0L;
+			while (Long.bitCount(ranks) < 5) ranks |= rank(random.nextInt(RANKS));
+			return ranks << random.nextInt(SUITS) * BITS_PER_SUIT;
+		case STRAIGHT:
+			long straight = 0L;
+			for (long pattern = straight(random.nextInt(STRAIGHTS)); pattern != 0; pattern &= pattern - 1) {
+				straight |= (pattern & -pattern) << random.nextInt(SUITS) * BITS_PER_SUIT;
+			}
+			return straight;
+		case TRIPS:
+			return sameRank(first, 3);
+		case TWO_PAIR:
+			return sameRank(first, 2) | sameRank(second, 2);
+		case PAIR:
+			return sameRank(first, 2);
+		default:
+			return 0L;
+		}
+	}
+	
+	private static long rank(int rank) {
+		return 1L << (DEUCE_INDEX + rank);
+	}
+	
+	private static long straight(int lowest) {
+		if (lowest == 0) return (STRAIGHT_RANKS >> 1 << DEUCE_INDEX) | rank(RANKS - 1);
+		return STRAIGHT_RANKS << (DEUCE_INDEX + lowest - 1);
+	}
+	
+	private long sameRank(int rank, int count) {
+		int suits = 0;
+		while (Integer.bitCount(suits) < count) suits |= 1 << random.nextInt(SUITS);
+		long cards = 0L;
+		for (int suit = 0; suit < SUITS; suit++) {
+			if ((suits & (1 << suit)) != 0) cards |= rank(rank) << suit * BITS_PER_SUIT;
+		}
+		return cards;
+	}
+}
@@ -0,0 +1,214 @@
+package dk.olehougaard.poker;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class EquityCache {
+	public static final int WAYS = 8;
+	public static final int BYTES_PER_ENTRY = 2 * Long.BYTES + 3 * Long.BYTES + 2;
+	
+	private static final int MAX_SEGMENTS = 64;
+	private static final int HAND_BITS = 11;
+	private static final int BOARD_BITS = 22;
+	private static final long EMPTY = -1L;
+	
+	public interface Equity {
+		EquityResult headsUp(long hero, long villain, long board, long dead);
+	}
+	
+	private final Equity equity;
+	private final Segment[] segments;
+	private final int segmentShift;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private final LongAdder rejections = new LongAdder();
+	
+	public EquityCache(long bytes) {
+		this(bytes, ExhaustiveEquity::headsUp);
+	}
+	
+	public EquityCache(long bytes, Equity equity) {
+		final long entries = bytes / BYTES_PER_ENTRY;
+		if (entries < WAYS) throw new IllegalArgumentException("Byte budget too small for a single bucket: " + bytes);
+		final long slots = Long.highestOneBit(Math.min(entries, 1L << 30));
+		final int segmentCount = (int) Math.min(MAX_SEGMENTS, slots / WAYS);
+		this.equity = equity;
+		segments = new Segment[segmentCount];
+		for (int i = 0; i < segmentCount; i++) segments[i] = new Segment((int) (slots / segmentCount));
+		segmentShift = Long.SIZE - Integer.numberOfTrailingZeros(segmentCount);
+	}
+	
+	public EquityResult headsUp(long hero, long villain, long board) {
+		return headsUp(hero, villain, board, 0L);
+	}
+	
+	public EquityResult headsUp(long hero, long villain, long board, long dead) {
+		final long start = Metrics.ENABLED ? System.nanoTime() : 0L;
+		ExhaustiveEquity.checkHoleCards(hero);
+		ExhaustiveEquity.checkHoleCards(villain);
+		ExhaustiveEquity.checkBoard(board);
+		ExhaustiveEquity.checkDisjoint(hero, villain, board, dead);
+		final long[] cards = { hero, villain, board, dead };
+		SuitIsomorphism.canonicalize(cards);
+		final long key = key(cards[0], cards[1], cards[2]);
+		final long hash = hash(key, cards[3]);
+		final Segment segment = segment(hash);
+		final EquityResult cached = segment.get(key, cards[3], hash);
+		if (cached != null) {
+			hits.increment();
+			if (Metrics.ENABLED) Metrics.cached(true, start);
+			return cached;
+		}
+		misses.increment();
+		final EquityResult result = equity.headsUp(cards[0], cards[1], cards[2], cards[3]);
+		switch (segment.put(key, cards[3], hash, result)) {
+		case EVICTED: evictions.increment(); break;
+		case REJECTED: rejections.increment(); break;
+		default: break;
+		}
+		if (Metrics.ENABLED) Metrics.cached(false, start);
+		return result;
+	}
+	
+	static long key(long hero, long villain, long board) {
+		return HandIndex.index(hero) | (long) HandIndex.index(villain) << HAND_BITS
+				| (long) HandIndex.index(board) << 2 * HAND_BITS | (long) Long.bitCount(board) << 2 * HAND_BITS + BOARD_BITS;
+	}
+	
+	private static long hash(long key, long dead) {
+		long h = key * 0x9e3779b97f4a7c15L ^ dead;
+		h = (h ^ (h >>> 33)) * 0xff51afd7ed558ccdL;
+		h = (h ^ (h >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		return h ^ (h >>> 33);
+	}
+	
+	private Segment segment(long hash) {
+		return segments.length == 1 ? segments[0] : segments[(int) (hash >>> segmentShift)];
+	}
+	
+	public long getCapacity() {
+		long capacity = 0;
+		for (Segment segment : segments) capacity += segment.keys.length / 2;
+		return capacity;
+	}
+	
+	public long size() {
+		long size = 0;
+		for (Segment segment : segments) size += segment.size();
+		return size;
+	}
+	
+	public long getHits() {
+		return hits.sum();
+	}
+	
+	public long getMisses() {
+		return misses.sum();
+	}
+	
+	public long getEvictions() {
+		return evictions.sum();
+	}
+	
+	public long getRejections() {
+		return rejections.sum();
+	}
+	
+	private enum Outcome { STORED, EVICTED, REJECTED }
+	
+	private static class Segment {
+		private static final long COUNTER_MASK = 0xfL;
+		private static final long HALVING_MASK = 0x7777777777777777L;
+		private static final long[] SEEDS = { 0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+		
+		final long[] keys;
+		final long[] values;
+		final long[] sketch;
+		final int bucketMask;
+		final int sampleSize;
+		int additions = 0;
+		
+		Segment(int slots) {
+			keys = new long[2 * slots];
+			values = new long[3 * slots];
+			sketch = new long[Math.max(1, slots / 4)];
+			bucketMask = slots / WAYS - 1;
+			sampleSize = 10 * slots;
+			for (int slot = 0; slot < slots; slot++) keys[2 * slot] = EMPTY;
+		}
+		
+		private int counter(long hash, int row) {
+			long h = (hash + SEEDS[row]) * SEEDS[row];
+			h += h >>> 32;
+			return (int) (h & (sketch.length * 16L - 1));
+		}
+		
+		private int frequency(long hash) {
+			int frequency = Integer.MAX_VALUE;
+			for (int row = 0; row < SEEDS.length; row++) {
+				final int counter = counter(hash, row);
+				frequency = Math.min(frequency, (int) ((sketch[counter >>> 4] >>> ((counter & 15) << 2)) & COUNTER_MASK));
+			}
+			return frequency;
+		}
+		
+		private void increment(long hash) {
+			for (int row = 0; row < SEEDS.length; row++) {
+				final int counter = counter(hash, row);
+				final int shift = (counter & 15) << 2;
+				if (((sketch[counter >>> 4] >>> shift) & COUNTER_MASK) != COUNTER_MASK) sketch[counter >>> 4] += 1L << shift;
+			}
+			if (++additions == sampleSize) {
+				for (int i = 0; i < sketch.length; i++) sketch[i] = (sketch[i] >>> 1) & HALVING_MASK;
+				additions = 0;
+			}
+		}
+		
+		synchronized EquityResult get(long key, long dead, long hash) {
+			increment(hash);
+			final int base = ((int) hash & bucketMask) * WAYS;
+			for (int slot = base; slot < base + WAYS; slot++) {
+				if (keys[2 * slot] == key && keys[2 * slot + 1] == dead) {
+					return new EquityResult(values[3 * slot], values[3 * slot + 1], values[3 * slot + 2]);
+				}
+			}
+			return null;
+		}
+		
+		synchronized Outcome put(long key, long dead, long hash, EquityResult result) {
+			final int base = ((int) hash & bucketMask) * WAYS;
+			int victim = -1;
+			int victimFrequency = Integer.MAX_VALUE;
+			for (int slot = base; slot < base + WAYS; slot++) {
+				if (keys[2 * slot] == EMPTY || (keys[2 * slot] == key && keys[2 * slot + 1] == dead)) {
+					store(slot, key, dead, result);
+					return Outcome.STORED;
+				}
+				final int frequency = frequency(hash(keys[2 * slot], keys[2 * slot + 1]));
+				if (frequency < victimFrequency) {
+					victim = slot;
+					victimFrequency = frequency;
+				}
+			}
+			if (frequency(hash) <= victimFrequency) return Outcome.REJECTED;
+			store(victim, key, dead, result);
+			return Outcome.EVICTED;
+		}
+		
+		private void store(int slot, long key, long dead, EquityResult result) {
+			keys[2 * slot] = key;
+			keys[2 * slot + 1] = dead;
+			values[3 * slot] = result.getWins();
+			values[3 * slot + 1] = result.getTies();
+			values[3 * slot + 2] = result.getLosses();
+		}
+		
+		synchronized int size() {
+			int size = 0;
+			for (int slot = 0; slot < keys.length / 2; slot++) {
+				if (keys[2 * slot] != EMPTY) size++;
+			}
+			return size;
+		}
+	}
+}
@@ -0,0 +1,42 @@
+package dk.olehougaard.poker;
+
+public class EquityResult {
+	private final long wins;
+	private final long ties;
+	private final long losses;
+
+	public EquityResult(long wins, long ties, long losses) {
+		this.wins = wins;
+		this.ties = ties;
+		this.losses = losses;
+	}
+
+	public long getWins() {
+		return wins;
+	}
+
+	public long getTies() {
+		return ties;
+	}
+
+	public long getLosses() {
+		return losses;
+	}
+	
+	public long getTotal() {
+		return wins + ties + losses;
+	}
+	
+	public double getEquity() {
+		return (wins + ties / 2.0) / getTotal();
+	}
+	
+	public EquityResult add(EquityResult other) {
+		return new EquityResult(wins + other.wins, ties + other.ties, losses + other.losses);
+	}
+
+	@Override
+	public String toString() {
+		return "EquityResult [wins=" + wins + ", ties=" + ties + ", losses=" + losses + ", equity=" + getEquity() + "]";
+	}
+}
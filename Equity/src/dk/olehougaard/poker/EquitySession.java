@@ -0,0 +1,144 @@
+package dk.olehougaard.poker;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class EquitySession {
+	private static final long SEQUENTIAL_THRESHOLD = 1 << 14;
+	
+	private final long[] players;
+	private final long live;
+	private final short[] winners;
+	private long board = 0L;
+	private long boardPositions = 0L;
+	private MultiwayResult result;
+	
+	public EquitySession(long[] players, long dead) {
+		this(players, 0L, dead);
+	}
+	
+	public EquitySession(long[] players, long board, long dead) {
+		final long known = MultiwayEquity.check(players, board, dead);
+		this.players = players.clone();
+		live = Hand.HAND_MASK & ~(known & ~board);
+		final long runouts = Combinations.binomial(Long.bitCount(live), ExhaustiveEquity.BOARD_SIZE);
+		if (runouts == 0) throw new IllegalArgumentException("Not enough live cards to complete the board");
+		winners = new short[(int) runouts];
+		ForkJoinPool.commonPool().invoke(new ShowdownTask(0, runouts));
+		result = aggregate(0L);
+		for (long card : Combinations.cards(board)) reveal(card);
+	}
+	
+	public int getPlayers() {
+		return players.length;
+	}
+	
+	public long getBoard() {
+		return board;
+	}
+	
+	public MultiwayResult getResult() {
+		return result;
+	}
+	
+	public MultiwayResult reveal(long card) {
+		final long positions = boardPositions | position(card);
+		result = aggregate(positions);
+		board |= card;
+		boardPositions = positions;
+		return result;
+	}
+	
+	public MultiwayResult preview(long card) {
+		return aggregate(boardPositions | position(card));
+	}
+	
+	private long position(long card) {
+		if (Long.bitCount(card) != 1) throw new IllegalArgumentException("Not a single card: " + Long.toHexString(card));
+		if (Long.bitCount(board) == ExhaustiveEquity.BOARD_SIZE) throw new IllegalArgumentException("The board is complete");
+		if ((card & board) != 0) throw new IllegalArgumentException("Card already on the board: " + Long.toHexString(card));
+		if ((card & live) == 0) throw new IllegalArgumentException("Card is not live: " + Long.toHexString(card));
+		return 1L << Long.bitCount(live & (card - 1));
+	}
+	
+	private static long rank(long positions) {
+		long rank = 0;
+		for (int k = 1; positions != 0; k++) {
+			rank += Combinations.binomial(Long.numberOfTrailingZeros(positions), k);
+			positions &= positions - 1;
+		}
+		return rank;
+	}
+	
+	private MultiwayResult aggregate(long fixed) {
+		final long[] counts = new long[1 << players.length];
+		final int missing = ExhaustiveEquity.BOARD_SIZE - Long.bitCount(fixed);
+		if (missing == ExhaustiveEquity.BOARD_SIZE) {
+			for (short mask : winners) counts[mask & 0xffff]++;
+		} else {
+			final long open = ((1L << Long.bitCount(live)) - 1) & ~fixed;
+			long positions = Combinations.lowest(open, missing);
+			do {
+				counts[winners[(int) rank(fixed | positions)] & 0xffff]++;
+			} while ((positions = Combinations.nextSubset(positions, open)) != 0);
+		}
+		return result(counts);
+	}
+	
+	private MultiwayResult result(long[] counts) {
+		final long[] wins = new long[players.length];
+		final long[] ties = new long[players.length * (players.length + 1)];
+		long runouts = 0;
+		for (int mask = 1; mask < counts.length; mask++) {
+			if (counts[mask] == 0) continue;
+			runouts += counts[mask];
+			final int ways = Integer.bitCount(mask);
+			for (int rest = mask; rest != 0; rest &= rest - 1) {
+				final int player = Integer.numberOfTrailingZeros(rest);
+				if (ways == 1) wins[player] += counts[mask];
+				else ties[MultiwayResult.tieIndex(players.length, player, ways)] += counts[mask];
+			}
+		}
+		return new MultiwayResult(players.length, runouts, wins, ties);
+	}
+	
+	private class ShowdownTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		
+		private final long from;
+		private final long to;
+		
+		ShowdownTask(long from, long to) {
+			this.from = from;
+			this.to = to;
+		}
+		
+		@Override
+		protected void compute() {
+			if (to - from > SEQUENTIAL_THRESHOLD) {
+				final long middle = (from + to) >>> 1;
+				invokeAll(new ShowdownTask(from, middle), new ShowdownTask(middle, to));
+				return;
+			}
+			long runout = Combinations.unrankSubset(from, live, ExhaustiveEquity.BOARD_SIZE);
+			BoardContext context = null;
+			for (long i = from; i < to; i++) {
+				if (context == null) context = new BoardContext(runout);
+				else context.setBoard(runout);
+				long best = Long.MIN_VALUE;
+				int mask = 0;
+				for (int player = 0; player < players.length; player++) {
+					final long rank = context.evaluate(players[player]);
+					if (rank > best) {
+						best = rank;
+						mask = 1 << player;
+					} else if (rank == best) {
+						mask |= 1 << player;
+					}
+				}
+				winners[(int) i] = (short) mask;
+				runout = Combinations.nextSubset(runout, live);
+			}
+		}
+	}
+}
@@ -4,12 +4,16 @@ import static dk.olehougaard.poker.Hand.ACE_INDEX;
 import static dk.olehougaard.poker.Hand.ALL_SUIT_POSITIONS;
 import static dk.olehougaard.poker.Hand.BITS_PER_SUIT;
 import static dk.olehougaard.poker.Hand.CLUB_MASK;
+import static dk.olehougaard.poker.Hand.EIGHT_INDEX;
 import static dk.olehougaard.poker.Hand.FIVE_INDEX;
 import static dk.olehougaard.poker.Hand.LOW_ACE_INDEX;
 
+import java.nio.BufferOverflowException;
+import java.nio.LongBuffer;
+
 public class Evaluator {
-	private static final long WHEEL_PATTERN = (1L << 5) - 1;
-	private static final long BROADWAY_PATTERN = WHEEL_PATTERN << (ACE_INDEX - FIVE_INDEX);
+	static final long WHEEL_PATTERN = (1L << 5) - 1;
+	static final long BROADWAY_PATTERN = WHEEL_PATTERN << (ACE_INDEX - FIVE_INDEX);
 	private static final long ACE_MASK = (1L << ACE_INDEX) * ALL_SUIT_POSITIONS;
 	
 	public static final int UNPAIRED_INDEX = 0;
@@ -34,6 +38,12 @@ public class Evaluator {
 	public static final long QUAD_MASK = 1L << QUAD_INDEX;
 	public static final long SF_MASK = 1L << SF_INDEX;
 	
+	public static final int LOW_INDEX = SF_INDEX + 1;
+	public static final int LOW_CARDS = 5;
+	public static final long HIGH_MASK = (1L << LOW_INDEX) - 1;
+	private static final long EIGHT_OR_BETTER = (1L << (EIGHT_INDEX + 1)) - 1;
+	public static final long LOW_MASK = EIGHT_OR_BETTER << LOW_INDEX;
+	
 	private static long evaluateStraightFlush(long hand) {
 		hand |= (hand & ACE_MASK) >> (ACE_INDEX - LOW_ACE_INDEX);
 		final short clubs = (short) hand;
@@ -52,68 +62,42 @@ public class Evaluator {
 		return 0L;
 	}
 	
-	private static long evaluatePaired(long hand) {
-		long odd_paired = hand & ((hand >>> BITS_PER_SUIT) | (hand << Long.SIZE - BITS_PER_SUIT));
-		long even_paired = hand & (hand >> 2 * BITS_PER_SUIT);
-		long paired = odd_paired | even_paired;
-		paired |= paired >> 2 * BITS_PER_SUIT;
-		paired |= paired >> BITS_PER_SUIT;
-		paired &= CLUB_MASK;
-		long hand_type = 0L;
-		long msp_mask = 0L;
-		long lsp_mask = 0L;
-		int counterfeited = 0;
-		while (paired != 0) {
-			final short lsb = (short)(paired & (-paired));
-			long pair_count = hand & (lsb * ALL_SUIT_POSITIONS);
-			pair_count += pair_count >> 2 * BITS_PER_SUIT;
-			pair_count += pair_count >> BITS_PER_SUIT;
-			switch ((short)pair_count / lsb) {
-			case 4:
-				if (hand_type == TRIP_MASK) {
-					counterfeited = 2;
-				} else if (msp_mask != 0) {
-					counterfeited = 1;
-				}
-				hand_type = QUAD_MASK;
-				msp_mask = lsb;
-				lsp_mask = 0;
-				break;
-			case 3:
-				if (hand_type == QUAD_MASK) {
-					counterfeited = 2;
-				} else if (msp_mask != 0) {
-					hand_type = BOAT_MASK;
-					lsp_mask = msp_mask;
-					msp_mask = lsb;
-				} else {
-					hand_type = TRIP_MASK;
-					msp_mask = lsb;
-				}
-				break;
-			case 2:
-				if (hand_type == QUAD_MASK) {
-					counterfeited = 1;
-				} else if (hand_type == BOAT_MASK) {
-					lsp_mask = lsb;
-				} else if (hand_type == TRIP_MASK) {
-					hand_type = BOAT_MASK;
-					lsp_mask = lsb;
-				} else if (msp_mask != 0) {
-					hand_type = TWO_PAIR_MASK;
-					if (lsp_mask != 0) counterfeited = 1;
-					lsp_mask = msp_mask;
-					msp_mask = lsb;
-				} else {
-					msp_mask = lsb;
-				}
+	static long evaluatePlanes(long hand) {
+		final long clubs = hand & CLUB_MASK;
+		final long diamonds = (hand >>> BITS_PER_SUIT) & CLUB_MASK;
+		final long hearts = (hand >>> 2 * BITS_PER_SUIT) & CLUB_MASK;
+		final long spades = hand >>> 3 * BITS_PER_SUIT;
+		final long low = clubs ^ diamonds;
+		final long high = hearts ^ spades;
+		final long odd = low ^ high;
+		final long twos = (clubs & diamonds) ^ (hearts & spades) ^ (low & high);
+		return evaluateMultiplicities(odd & ~twos, twos & ~odd, odd & twos, clubs & diamonds & hearts & spades);
+	}
+	
+	static long evaluateMultiplicities(long singles, long pairs, long trips, long quads) {
+		if (quads != 0) return QUAD_MASK | (quads << MSP_INDEX) | highest(singles | pairs | trips, 1);
+		if (trips != 0) {
+			final long msp = Long.highestOneBit(trips);
+			final long rest = (trips ^ msp) | pairs;
+			if (rest != 0) return BOAT_MASK | (msp << MSP_INDEX) | (Long.highestOneBit(rest) << LSP_INDEX);
+			return TRIP_MASK | (msp << MSP_INDEX) | highest(singles, 2);
+		}
+		if (pairs != 0) {
+			final long msp = Long.highestOneBit(pairs);
+			final long rest = pairs ^ msp;
+			if (rest != 0) {
+				final long lsp = Long.highestOneBit(rest);
+				return TWO_PAIR_MASK | (msp << MSP_INDEX) | (lsp << LSP_INDEX) | highest(singles | (rest ^ lsp), 1);
 			}
-			paired &= paired - 1;
+			return (msp << MSP_INDEX) | highest(singles, 3);
 		}
-		long unpaired = valuesOnly(hand) & ~(msp_mask | lsp_mask);
-		if (counterfeited < 2) unpaired &= unpaired - 1;
-		if (counterfeited < 1) unpaired &= unpaired - 1;
-		return hand_type | (msp_mask << MSP_INDEX) | (lsp_mask << LSP_INDEX) | unpaired;
+		return highest(singles, 5);
+	}
+	
+	static long highest(long ranks, int count) {
+		ranks &= ~(ranks & -ranks & (count - Long.bitCount(ranks)) >> (Integer.SIZE - 1));
+		ranks &= ~(ranks & -ranks & (count - Long.bitCount(ranks)) >> (Integer.SIZE - 1));
+		return ranks;
 	}
 	
 	private static final long HAMMING8  = (1L << 8) - 1;
@@ -143,30 +127,100 @@ public class Evaluator {
 		return bits;
 	}
 	
-	private static long evaluateStraight(long hand) {
-		hand |= (hand & ACE_MASK) >> (ACE_INDEX - LOW_ACE_INDEX);
-		hand = valuesOnly(hand);
+	private static long evaluateStraight(long values) {
+		values |= values >>> (ACE_INDEX - LOW_ACE_INDEX);
 		for(long pattern = BROADWAY_PATTERN; pattern >= WHEEL_PATTERN; pattern >>= 1) {
-			if ((pattern & hand) == pattern) return STRAIGHT_MASK | pattern;
+			if ((pattern & values) == pattern) return STRAIGHT_MASK | pattern;
 		}
 		return 0L;
 	}
 	
-	private static long valuesOnly(long hand) {
+	private static long low(long values) {
+		long low = (values | values >>> (ACE_INDEX - LOW_ACE_INDEX)) & EIGHT_OR_BETTER;
+		if (Long.bitCount(low) < LOW_CARDS) return 0L;
+		low ^= Long.highestOneBit(low) & (LOW_CARDS - Long.bitCount(low)) >> (Integer.SIZE - 1);
+		low ^= Long.highestOneBit(low) & (LOW_CARDS - Long.bitCount(low)) >> (Integer.SIZE - 1);
+		low ^= Long.highestOneBit(low) & (LOW_CARDS - Long.bitCount(low)) >> (Integer.SIZE - 1);
+		return (EIGHT_OR_BETTER ^ low) << LOW_INDEX;
+	}
+	
+	static long valuesOnly(long hand) {
 		hand |= hand >> 2 * BITS_PER_SUIT;
 		hand |= hand >> BITS_PER_SUIT;
 		return hand & CLUB_MASK;
 	}
 	
 	public static long evaluate(long hand) {
+		final long rank = evaluateStages(hand);
+		if (Metrics.ENABLED) Metrics.evaluated(rank);
+		return rank;
+	}
+	
+	public static long evaluateAny(long hand) {
+		final int size = Long.bitCount(hand);
+		if (size < 5 || size > 7) throw new IllegalArgumentException("Not a hand of 5 to 7 cards: " + Long.toHexString(hand));
+		return evaluate(hand);
+	}
+	
+	private static long evaluateStages(long hand) {
 		long sf = evaluateStraightFlush(hand);
 		if (sf != 0) return sf;
-		long pairs = evaluatePaired(hand);
+		long pairs = evaluatePlanes(hand);
 		if ((pairs & (QUAD_MASK | BOAT_MASK)) != 0) return pairs;
 		long flush = evaluateFlush(hand);
 		if ((flush & FLUSH_MASK) != 0) return flush;
-		long straight = evaluateStraight(hand);
+		long straight = evaluateStraight(valuesOnly(hand));
 		if ((straight & STRAIGHT_MASK) != 0) return straight;
 		return pairs;
 	}
+	
+	public static long evaluateLow(long hand) {
+		return low(valuesOnly(hand));
+	}
+	
+	public static long evaluateHiLo(long hand) {
+		final long rank = evaluateHiLoStages(hand);
+		if (Metrics.ENABLED) Metrics.evaluated(rank & HIGH_MASK);
+		return rank;
+	}
+	
+	private static long evaluateHiLoStages(long hand) {
+		final long values = valuesOnly(hand);
+		final long sf = evaluateStraightFlush(hand);
+		if (sf != 0) return sf | low(values);
+		final long pairs = evaluatePlanes(hand);
+		if ((pairs & (QUAD_MASK | BOAT_MASK)) != 0) return pairs;
+		final long low = low(values);
+		final long flush = evaluateFlush(hand);
+		if ((flush & FLUSH_MASK) != 0) return flush | low;
+		final long straight = evaluateStraight(values);
+		if ((straight & STRAIGHT_MASK) != 0) return straight | low;
+		return pairs | low;
+	}
+	
+	public static void evaluate(long[] hands, long[] ranks, int from, int to) {
+		if (from < 0 || from > to || to > hands.length || to > ranks.length) 
+			throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") out of bounds");
+		evaluate(hands, from, ranks, from, to - from);
+	}
+	
+	public static void evaluate(long[] hands, long[] ranks) {
+		evaluate(hands, ranks, 0, hands.length);
+	}
+	
+	public static void evaluate(LongBuffer hands, LongBuffer ranks) {
+		final int count = hands.remaining();
+		if (ranks.remaining() < count) throw new BufferOverflowException();
+		if (hands.hasArray() && ranks.hasArray()) {
+			evaluate(hands.array(), hands.arrayOffset() + hands.position(), ranks.array(), ranks.arrayOffset() + ranks.position(), count);
+			hands.position(hands.position() + count);
+			ranks.position(ranks.position() + count);
+		} else {
+			while (hands.hasRemaining()) ranks.put(evaluate(hands.get()));
+		}
+	}
+	
+	private static void evaluate(long[] hands, int handOffset, long[] ranks, int rankOffset, int count) {
+		for (int i = 0; i < count; i++) ranks[rankOffset + i] = evaluate(hands[handOffset + i]);
+	}
 }
@@ -0,0 +1,161 @@
+package dk.olehougaard.poker;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.stream.LongStream;
+
+public class EvaluatorVerifier {
+	public static final int MIN_CARDS = 5;
+	public static final int MAX_CARDS = 7;
+	
+	private static final long[][] CATEGORY_COUNTS = {
+		{ 1_302_540, 1_098_240, 123_552, 54_912, 10_200, 5_108, 3_744, 624, 40 },
+		{ 6_612_900, 9_730_740, 2_532_816, 732_160, 361_620, 205_792, 165_984, 14_664, 1_844 },
+		{ 23_294_460, 58_627_800, 31_433_400, 6_461_620, 6_180_020, 4_047_644, 3_473_184, 224_848, 41_584 }
+	};
+	private static final int[] DISTINCT_RANKS = { 7462, 6075, 4824 };
+	private static final long[] RANKS = RankTable.distinctRanks();
+	private static final int CATEGORIES = HandCategory.values().length;
+	
+	public static class Report {
+		private final int cards;
+		private final long hands;
+		private final long nanos;
+		private final long[] categories;
+		private final int distinctRanks;
+		
+		Report(int cards, long hands, long nanos, long[] categories, int distinctRanks) {
+			this.cards = cards;
+			this.hands = hands;
+			this.nanos = nanos;
+			this.categories = categories;
+			this.distinctRanks = distinctRanks;
+		}
+		
+		public int getCards() {
+			return cards;
+		}
+		
+		public long getHands() {
+			return hands;
+		}
+		
+		public long getNanos() {
+			return nanos;
+		}
+		
+		public long[] getCategories() {
+			return categories.clone();
+		}
+		
+		public int getDistinctRanks() {
+			return distinctRanks;
+		}
+		
+		public double getHandsPerSecond() {
+			return hands * 1e9 / nanos;
+		}
+		
+		@Override
+		public String toString() {
+			final String ranks = distinctRanks == 0 ? "" : distinctRanks + " distinct ranks, ";
+			return String.format("%d hands of %d cards in %.1f s (%.1fM hands/s), %scategories %s",
+					hands, cards, nanos / 1e9, getHandsPerSecond() / 1e6, ranks, Arrays.toString(categories));
+		}
+	}
+	
+	public static LongStream hands(int cards) {
+		checkCards(cards);
+		return Combinations.stream(Hand.HAND_MASK, cards);
+	}
+	
+	public static Report verify(HandEvaluator candidate, int cards) {
+		final long start = System.nanoTime();
+		final Accumulator result = hands(cards).parallel().collect(() -> new Accumulator(candidate), Accumulator::accept, Accumulator::combine);
+		final long nanos = System.nanoTime() - start;
+		int distinct = 0;
+		long previous = Long.MIN_VALUE;
+		for (int ordinal = 0; ordinal < RANKS.length; ordinal++) {
+			if (!result.seen[ordinal]) continue;
+			if (distinct > 0 && result.values[ordinal] <= previous)
+				throw new IllegalStateException("Ordering differs at " + RankDecoder.toString(RANKS[ordinal]) + ": " + Long.toHexString(result.values[ordinal]));
+			previous = result.values[ordinal];
+			distinct++;
+		}
+		if (distinct != DISTINCT_RANKS[cards - MIN_CARDS]) throw new IllegalStateException("Expected " + DISTINCT_RANKS[cards - MIN_CARDS] + " distinct ranks, got " + distinct);
+		if (!Arrays.equals(CATEGORY_COUNTS[cards - MIN_CARDS], result.categories)) throw new IllegalStateException("Wrong category counts: " + Arrays.toString(result.categories));
+		return new Report(cards, result.hands, nanos, result.categories, distinct);
+	}
+	
+	public static Report throughput(HandEvaluator candidate, int cards) {
+		final long start = System.nanoTime();
+		final long[] categories = hands(cards).parallel().collect(() -> new long[CATEGORIES], (counts, hand) -> counts[candidate.category(candidate.evaluate(hand))]++, (a, b) -> {
+			for (int i = 0; i < a.length; i++) a[i] += b[i];
+		});
+		final long nanos = System.nanoTime() - start;
+		return new Report(cards, HandIndex.size(cards), nanos, categories, 0);
+	}
+	
+	private static void checkCards(int cards) {
+		if (cards < MIN_CARDS || cards > MAX_CARDS) throw new IllegalArgumentException("Not a hand size between " + MIN_CARDS + " and " + MAX_CARDS + ": " + cards);
+	}
+	
+	private static class Accumulator {
+		final HandEvaluator candidate;
+		final long[] categories = new long[CATEGORIES];
+		final long[] values = new long[RANKS.length];
+		final boolean[] seen = new boolean[RANKS.length];
+		long hands = 0;
+		
+		Accumulator(HandEvaluator candidate) {
+			this.candidate = candidate;
+		}
+		
+		void accept(long hand) {
+			final long reference = Evaluator.evaluateAny(hand);
+			final long value = candidate.evaluate(hand);
+			final int category = candidate.category(value);
+			if (category != HandCategory.ordinalOf(reference))
+				throw new IllegalStateException("Wrong category for " + Long.toHexString(hand) + ": " + HandCategory.valueOf(category));
+			record(Arrays.binarySearch(RANKS, reference), value);
+			categories[category]++;
+			hands++;
+		}
+		
+		private void record(int ordinal, long value) {
+			if (!seen[ordinal]) {
+				seen[ordinal] = true;
+				values[ordinal] = value;
+			} else if (values[ordinal] != value) {
+				throw new IllegalStateException("Inconsistent values for " + RankDecoder.toString(RANKS[ordinal]) + ": "
+						+ Long.toHexString(values[ordinal]) + " and " + Long.toHexString(value));
+			}
+		}
+		
+		void combine(Accumulator other) {
+			for (int i = 0; i < categories.length; i++) categories[i] += other.categories[i];
+			for (int ordinal = 0; ordinal < RANKS.length; ordinal++) {
+				if (other.seen[ordinal]) record(ordinal, other.values[ordinal]);
+			}
+			hands += other.hands;
+		}
+	}
+	
+	public static void main(String[] args) throws IOException {
+		final int cards = args.length > 0 ? Integer.parseInt(args[0]) : MAX_CARDS;
+		System.out.println("Evaluator:       " + verify(HandEvaluator.EVALUATOR, cards));
+		System.out.println("  throughput:    " + throughput(HandEvaluator.EVALUATOR, cards));
+		System.out.println("TableEvaluator:  " + verify(HandEvaluator.TABLE_EVALUATOR, cards));
+		System.out.println("  throughput:    " + throughput(HandEvaluator.TABLE_EVALUATOR, cards));
+		if (args.length > 1) {
+			final Path file = Paths.get(args[1]);
+			if (!Files.exists(file)) RankTable.build(file, cards);
+			final RankTable table = RankTable.load(file);
+			System.out.println("RankTable:       " + verify(table, cards));
+			System.out.println("  throughput:    " + throughput(table, cards));
+		}
+	}
+}
@@ -0,0 +1,97 @@
+package dk.olehougaard.poker;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+public class ExhaustiveEquity {
+	public static final int HOLE_CARDS = 2;
+	public static final int BOARD_SIZE = 5;
+	
+	private static final long SEQUENTIAL_THRESHOLD = 1 << 14;
+	
+	public static EquityResult headsUp(long hero, long villain) {
+		return headsUp(hero, villain, 0L, 0L);
+	}
+	
+	public static EquityResult headsUp(long hero, long villain, long board) {
+		return headsUp(hero, villain, board, 0L);
+	}
+	
+	public static EquityResult headsUp(long hero, long villain, long board, long dead) {
+		final long start = Metrics.ENABLED ? System.nanoTime() : 0L;
+		checkHoleCards(hero);
+		checkHoleCards(villain);
+		checkBoard(board);
+		checkDisjoint(hero, villain, board, dead);
+		final long live = Hand.HAND_MASK & ~(hero | villain | board | dead);
+		final int missing = BOARD_SIZE - Long.bitCount(board);
+		final long boards = Combinations.binomial(Long.bitCount(live), missing);
+		if (boards == 0) throw new IllegalArgumentException("Not enough live cards to complete the board");
+		final EquityResult result = ForkJoinPool.commonPool().invoke(new BoardTask(hero | board, villain | board, live, missing, 0, boards));
+		if (Metrics.ENABLED) Metrics.job("exhaustive", boards, start);
+		return result;
+	}
+	
+	static void checkHoleCards(long holeCards) {
+		if (Long.bitCount(holeCards) != HOLE_CARDS || (holeCards & ~Hand.HAND_MASK) != 0) 
+			throw new IllegalArgumentException("Not two hole cards: " + Long.toHexString(holeCards));
+	}
+	
+	static void checkBoard(long board) {
+		if (Long.bitCount(board) > BOARD_SIZE || (board & ~Hand.HAND_MASK) != 0) 
+			throw new IllegalArgumentException("Not a board: " + Long.toHexString(board));
+	}
+	
+	static void checkDisjoint(long... hands) {
+		long seen = 0L;
+		for (long hand : hands) {
+			if ((hand & ~Hand.HAND_MASK) != 0) throw new IllegalArgumentException("Not a set of cards: " + Long.toHexString(hand));
+			if ((seen & hand) != 0) throw new IllegalArgumentException("Card dealt twice: " + Long.toHexString(seen & hand));
+			seen |= hand;
+		}
+	}
+	
+	private static class BoardTask extends RecursiveTask<EquityResult> {
+		private static final long serialVersionUID = 1L;
+		
+		private final long hero;
+		private final long villain;
+		private final long live;
+		private final int missing;
+		private final long from;
+		private final long to;
+
+		BoardTask(long hero, long villain, long live, int missing, long from, long to) {
+			this.hero = hero;
+			this.villain = villain;
+			this.live = live;
+			this.missing = missing;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected EquityResult compute() {
+			if (to - from <= SEQUENTIAL_THRESHOLD) return enumerate();
+			final long middle = (from + to) >>> 1;
+			final BoardTask high = new BoardTask(hero, villain, live, missing, middle, to);
+			high.fork();
+			final EquityResult low = new BoardTask(hero, villain, live, missing, from, middle).compute();
+			return low.add(high.join());
+		}
+
+		private EquityResult enumerate() {
+			long wins = 0, ties = 0, losses = 0;
+			long runout = Combinations.unrankSubset(from, live, missing);
+			for (long i = from; i < to; i++) {
+				final long heroRank = Evaluator.evaluate(hero | runout);
+				final long villainRank = Evaluator.evaluate(villain | runout);
+				if (heroRank > villainRank) wins++;
+				else if (heroRank < villainRank) losses++;
+				else ties++;
+				runout = Combinations.nextSubset(runout, live);
+			}
+			return new EquityResult(wins, ties, losses);
+		}
+	}
+}
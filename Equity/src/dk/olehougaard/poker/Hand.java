@@ -36,7 +36,7 @@ public class Hand {
 	public static final int ACE_INDEX = 13;
 	
 	public static final long CARD_MASK = 0b11111111111110L;
-	public static final long HAND_MASK = (CARD_MASK << SPADE_POSITION) | (CARD_MASK << HEART_POSITION) | (CARD_MASK << DIAMOND_POSITION)  | (CARD_MASK << CLUB_POSITION); 
+	public static final long HAND_MASK = (CARD_MASK << SPADE_INDEX) | (CARD_MASK << HEART_INDEX) | (CARD_MASK << DIAMOND_INDEX) | (CARD_MASK << CLUB_INDEX);
 	
 	private static final String SUITS = "CDHS";
 	private static final String VALUES = "23456789TJQKA";
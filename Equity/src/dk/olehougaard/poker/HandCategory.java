@@ -0,0 +1,29 @@
+package dk.olehougaard.poker;
+
+public enum HandCategory {
+	HIGH_CARD,
+	PAIR,
+	TWO_PAIR,
+	TRIPS,
+	STRAIGHT,
+	FLUSH,
+	BOAT,
+	QUADS,
+	STRAIGHT_FLUSH;
+	
+	private static final HandCategory[] VALUES = values();
+	
+	public static HandCategory of(long rank) {
+		return VALUES[ordinalOf(rank)];
+	}
+	
+	public static int ordinalOf(long rank) {
+		final long flags = rank >>> Evaluator.TWO_PAIR_INDEX;
+		if (flags != 0) return TWO_PAIR.ordinal() + Long.SIZE - 1 - Long.numberOfLeadingZeros(flags);
+		return (rank & Evaluator.MSP_MASK) != 0 ? PAIR.ordinal() : HIGH_CARD.ordinal();
+	}
+	
+	public static HandCategory valueOf(int ordinal) {
+		return VALUES[ordinal];
+	}
+}
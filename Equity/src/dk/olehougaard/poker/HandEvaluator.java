@@ -0,0 +1,12 @@
+package dk.olehougaard.poker;
+
+public interface HandEvaluator {
+	HandEvaluator EVALUATOR = Evaluator::evaluateAny;
+	HandEvaluator TABLE_EVALUATOR = TableEvaluator::evaluate;
+	
+	long evaluate(long hand);
+	
+	default int category(long rank) {
+		return HandCategory.ordinalOf(rank);
+	}
+}
@@ -0,0 +1,271 @@
+package dk.olehougaard.poker;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.LongConsumer;
+
+public class HandHistory {
+	public static final int CHUNK_SIZE = 1 << 24;
+	
+	private static final int FLOP = 3;
+	private static final int LOOKAHEAD = 1 << 8;
+	private static final byte[] RANKS = new byte[256];
+	private static final byte[] SUITS = new byte[256];
+	static {
+		Arrays.fill(RANKS, (byte) -1);
+		Arrays.fill(SUITS, (byte) -1);
+		final String ranks = "23456789TJQKA";
+		for (int rank = 0; rank < ranks.length(); rank++) {
+			RANKS[ranks.charAt(rank)] = (byte) (rank + Hand.DEUCE_INDEX);
+			RANKS[Character.toLowerCase(ranks.charAt(rank))] = (byte) (rank + Hand.DEUCE_INDEX);
+		}
+		final String suits = "cdhs";
+		for (int suit = 0; suit < suits.length(); suit++) {
+			SUITS[suits.charAt(suit)] = (byte) (suit * Hand.BITS_PER_SUIT);
+			SUITS[Character.toUpperCase(suits.charAt(suit))] = (byte) (suit * Hand.BITS_PER_SUIT);
+		}
+	}
+	
+	static long card(byte rank, byte suit) {
+		final int value = RANKS[rank & 0xff];
+		final int offset = SUITS[suit & 0xff];
+		if (value < 0 || offset < 0) return 0L;
+		return 1L << (offset + value);
+	}
+	
+	public static HistoryResult ingest(Path... files) throws IOException {
+		return ingest(files, id -> {});
+	}
+	
+	public static HistoryResult ingest(Path[] files, LongConsumer mismatches) throws IOException {
+		return ingest(files, mismatches, CHUNK_SIZE);
+	}
+	
+	static HistoryResult ingest(Path[] files, LongConsumer mismatches, int chunkSize) throws IOException {
+		final List<FileChannel> channels = new ArrayList<>();
+		final List<ChunkTask> tasks = new ArrayList<>();
+		try {
+			for (Path file : files) {
+				final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+				channels.add(channel);
+				final long size = channel.size();
+				for (long from = 0; from < size; ) {
+					final long to = from + chunkSize >= size ? size : nextLine(channel, from + chunkSize, size);
+					tasks.add(new ChunkTask(channel, from, to));
+					from = to;
+				}
+			}
+			for (ChunkTask task : tasks) task.fork();
+			HistoryResult result = new HistoryResult(0, 0, 0, 0, new double[MultiwayEquity.MAX_PLAYERS], new double[MultiwayEquity.MAX_PLAYERS]);
+			// The chunks run on pool threads, so the listener is called here as each chunk is joined, in file order.
+			for (ChunkTask task : tasks) {
+				result = result.add(task.join());
+				task.report(mismatches);
+			}
+			return result;
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		} finally {
+			for (ChunkTask task : tasks) task.cancel(false);
+			for (FileChannel channel : channels) channel.close();
+		}
+	}
+	
+	private static long nextLine(FileChannel channel, long position, long size) throws IOException {
+		final ByteBuffer buffer = ByteBuffer.allocate(LOOKAHEAD);
+		while (position < size) {
+			buffer.clear();
+			final int read = channel.read(buffer, position);
+			for (int i = 0; i < read; i++) {
+				if (buffer.get(i) == '\n') return position + i + 1;
+			}
+			position += read;
+		}
+		return size;
+	}
+	
+	private static class ChunkTask extends RecursiveTask<HistoryResult> {
+		private static final long serialVersionUID = 1L;
+		
+		private final FileChannel channel;
+		private final long from;
+		private final long to;
+		private final long[] holes = new long[MultiwayEquity.MAX_PLAYERS];
+		private final long[] board = new long[ExhaustiveEquity.BOARD_SIZE];
+		private final double[] equities = new double[MultiwayEquity.MAX_PLAYERS];
+		private final double[] expected = new double[MultiwayEquity.MAX_PLAYERS];
+		private final double[] actual = new double[MultiwayEquity.MAX_PLAYERS];
+		private ByteBuffer buffer;
+		private int position;
+		private long[] mismatched = new long[16];
+		private int mismatches = 0;
+		private long hands = 0, malformed = 0, allIns = 0;
+		
+		ChunkTask(FileChannel channel, long from, long to) {
+			this.channel = channel;
+			this.from = from;
+			this.to = to;
+		}
+		
+		@Override
+		protected HistoryResult compute() {
+			try {
+				buffer = channel.map(MapMode.READ_ONLY, from, to - from);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			position = 0;
+			while (position < buffer.limit()) {
+				final byte first = buffer.get(position);
+				if (first == '\n' || first == '\r' || first == '#') {
+					skipLine();
+				} else {
+					if (!line()) malformed++;
+					skipLine();
+				}
+			}
+			return new HistoryResult(hands, malformed, mismatches, allIns, expected, actual);
+		}
+		
+		void report(LongConsumer listener) {
+			for (int i = 0; i < mismatches; i++) listener.accept(mismatched[i]);
+			mismatched = null;
+		}
+		
+		private void skipLine() {
+			while (position < buffer.limit() && buffer.get(position++) != '\n');
+		}
+		
+		private boolean atSeparator() {
+			if (position >= buffer.limit()) return true;
+			final byte b = buffer.get(position);
+			return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+		}
+		
+		private boolean skipSpaces() {
+			while (position < buffer.limit() && (buffer.get(position) == ' ' || buffer.get(position) == '\t')) position++;
+			return position < buffer.limit() && buffer.get(position) != '\n' && buffer.get(position) != '\r';
+		}
+		
+		private long number() {
+			long value = 0;
+			int digits = 0;
+			while (position < buffer.limit()) {
+				final int digit = buffer.get(position) - '0';
+				if (digit < 0 || digit > 9) break;
+				value = value * 10 + digit;
+				position++;
+				digits++;
+			}
+			return digits == 0 ? -1 : value;
+		}
+		
+		private long nextCard() {
+			if (position + 1 >= buffer.limit()) return 0L;
+			final long card = card(buffer.get(position), buffer.get(position + 1));
+			position += 2;
+			return card;
+		}
+		
+		// <id> <board> <all-in board cards> <pot> <winning seats> <hole cards>..., e.g. 1234 AhKd7c2s9h 3 200 0,2 AsAd KcQc 7h7s
+		private boolean line() {
+			final long id = number();
+			if (id < 0 || !skipSpaces()) return false;
+			long known = 0L;
+			for (int i = 0; i < board.length; i++) {
+				board[i] = nextCard();
+				if (board[i] == 0 || (known & board[i]) != 0) return false;
+				known |= board[i];
+			}
+			if (!atSeparator() || !skipSpaces()) return false;
+			final long allIn = number();
+			if (allIn < 0 || allIn > board.length || (allIn > 0 && allIn < FLOP) || !skipSpaces()) return false;
+			final long pot = number();
+			if (pot < 0 || !skipSpaces()) return false;
+			int claimed = 0;
+			while (true) {
+				final long seat = number();
+				if (seat < 0 || seat >= MultiwayEquity.MAX_PLAYERS) return false;
+				claimed |= 1 << seat;
+				if (position >= buffer.limit() || buffer.get(position) != ',') break;
+				position++;
+			}
+			int players = 0;
+			while (skipSpaces()) {
+				if (players == MultiwayEquity.MAX_PLAYERS) return false;
+				final long hole = nextCard() | nextCard();
+				if (Long.bitCount(hole) != ExhaustiveEquity.HOLE_CARDS || (known & hole) != 0 || !atSeparator()) return false;
+				known |= hole;
+				holes[players++] = hole;
+			}
+			if (players < MultiwayEquity.MIN_PLAYERS || (claimed >>> players) != 0) return false;
+			hands++;
+			final long fullBoard = board[0] | board[1] | board[2] | board[3] | board[4];
+			final int winners = showdown(players, fullBoard);
+			if (winners != claimed) {
+				if (mismatches == mismatched.length) mismatched = Arrays.copyOf(mismatched, 2 * mismatches);
+				mismatched[mismatches++] = id;
+			}
+			if (allIn < board.length) {
+				allIns++;
+				long allInBoard = 0L;
+				for (int i = 0; i < allIn; i++) allInBoard |= board[i];
+				equities(players, allInBoard, (known & ~fullBoard) | allInBoard);
+				final int ways = Integer.bitCount(winners);
+				for (int seat = 0; seat < players; seat++) {
+					expected[seat] += equities[seat] * pot;
+					if ((winners & (1 << seat)) != 0) actual[seat] += (double) pot / ways;
+				}
+			}
+			return true;
+		}
+		
+		private int showdown(int players, long board) {
+			long best = Long.MIN_VALUE;
+			int winners = 0;
+			for (int seat = 0; seat < players; seat++) {
+				final long rank = Evaluator.evaluate(holes[seat] | board);
+				if (rank > best) {
+					best = rank;
+					winners = 1 << seat;
+				} else if (rank == best) {
+					winners |= 1 << seat;
+				}
+			}
+			return winners;
+		}
+		
+		private void equities(int players, long board, long known) {
+			final long live = Hand.HAND_MASK & ~known;
+			for (int seat = 0; seat < players; seat++) equities[seat] = 0.0;
+			long cards = Combinations.lowest(live, ExhaustiveEquity.BOARD_SIZE - Long.bitCount(board));
+			long runouts = 0;
+			do {
+				final int winners = showdown(players, board | cards);
+				final double share = 1.0 / Integer.bitCount(winners);
+				for (int rest = winners; rest != 0; rest &= rest - 1) equities[Integer.numberOfTrailingZeros(rest)] += share;
+				runouts++;
+			} while ((cards = Combinations.nextSubset(cards, live)) != 0);
+			for (int seat = 0; seat < players; seat++) equities[seat] /= runouts;
+		}
+	}
+	
+	public static void main(String[] args) throws IOException {
+		final Path[] files = new Path[args.length];
+		for (int i = 0; i < args.length; i++) files[i] = Paths.get(args[i]);
+		final long start = System.nanoTime();
+		final HistoryResult result = ingest(files, id -> System.out.println("Mismatch in hand " + id));
+		System.out.println(result);
+		System.out.println("Ingested in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+	}
+}
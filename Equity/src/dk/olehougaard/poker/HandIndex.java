@@ -0,0 +1,71 @@
+package dk.olehougaard.poker;
+
+import static dk.olehougaard.poker.Hand.BITS_PER_SUIT;
+import static dk.olehougaard.poker.Hand.DEUCE_INDEX;
+
+import java.util.Arrays;
+
+public class HandIndex {
+	public static final int CARDS_IN_DECK = 52;
+	public static final int RANKS = 13;
+	public static final int MAX_CARDS = 7;
+	
+	private static final byte[] CARD_NUMBER = new byte[Long.SIZE];
+	private static final long[] CARD = new long[CARDS_IN_DECK];
+	private static final int[][] CHOOSE = new int[MAX_CARDS + 1][CARDS_IN_DECK + 1];
+	static {
+		Arrays.fill(CARD_NUMBER, (byte) -1);
+		for (int number = 0; number < CARDS_IN_DECK; number++) {
+			final int bit = number / RANKS * BITS_PER_SUIT + number % RANKS + DEUCE_INDEX;
+			CARD_NUMBER[bit] = (byte) number;
+			CARD[number] = 1L << bit;
+		}
+		for (int k = 0; k <= MAX_CARDS; k++) {
+			for (int n = 0; n <= CARDS_IN_DECK; n++) {
+				CHOOSE[k][n] = (int) Combinations.binomial(n, k);
+			}
+		}
+	}
+	
+	public static int size(int cards) {
+		checkCards(cards);
+		return CHOOSE[cards][CARDS_IN_DECK];
+	}
+	
+	public static int cardNumber(long card) {
+		return CARD_NUMBER[Long.numberOfTrailingZeros(card)];
+	}
+	
+	public static long card(int number) {
+		return CARD[number];
+	}
+	
+	public static int index(long hand) {
+		if ((hand & ~Hand.HAND_MASK) != 0 || Long.bitCount(hand) > MAX_CARDS) 
+			throw new IllegalArgumentException("Not a hand of at most " + MAX_CARDS + " cards: " + Long.toHexString(hand));
+		int index = 0;
+		for (int k = 1; hand != 0; k++) {
+			index += CHOOSE[k][CARD_NUMBER[Long.numberOfTrailingZeros(hand)]];
+			hand &= hand - 1;
+		}
+		return index;
+	}
+	
+	public static long hand(int index, int cards) {
+		if (index < 0 || index >= size(cards)) throw new IllegalArgumentException("No hand of " + cards + " cards has index " + index);
+		long hand = 0L;
+		int number = CARDS_IN_DECK;
+		for (int k = cards; k > 0; k--) {
+			do {
+				number--;
+			} while (CHOOSE[k][number] > index);
+			index -= CHOOSE[k][number];
+			hand |= CARD[number];
+		}
+		return hand;
+	}
+	
+	private static void checkCards(int cards) {
+		if (cards < 0 || cards > MAX_CARDS) throw new IllegalArgumentException("Not a hand size between 0 and " + MAX_CARDS + ": " + cards);
+	}
+}
@@ -0,0 +1,268 @@
+package dk.olehougaard.poker;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+public class HandStrength {
+	public static final int DEFAULT_BINS = 50;
+	
+	static final int AHEAD = 0, TIED = 1, BEHIND = 2;
+	static final int STATES = 3;
+	
+	private static final long SEQUENTIAL_THRESHOLD = 1 << 6;
+	private static final int INDEX_BITS = 11;
+	private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+	private static final int BEFORE = 0, AFTER = STATES, END = 2 * STATES;
+	
+	public static HandStrengthResult compute(long board, Range villain) {
+		return compute(board, villain, 0L, DEFAULT_BINS);
+	}
+	
+	public static HandStrengthResult compute(long board, Range villain, long dead, int bins) {
+		ExhaustiveEquity.checkBoard(board);
+		ExhaustiveEquity.checkDisjoint(board, dead);
+		if (Long.bitCount(board) < BoardContext.MIN_BOARD) throw new IllegalArgumentException("Not a flop, turn or river: " + Long.toHexString(board));
+		if (bins <= 0) throw new IllegalArgumentException("Not a number of bins: " + bins);
+		final Combos combos = new Combos(villain, board, dead);
+		if (combos.villainWeight == 0) throw new IllegalArgumentException("The range is empty after card removal");
+		final long live = Hand.HAND_MASK & ~(board | dead);
+		final int missing = ExhaustiveEquity.BOARD_SIZE - Long.bitCount(board);
+		final long runouts = Combinations.binomial(Long.bitCount(live), missing);
+		final Tally tally = ForkJoinPool.commonPool().invoke(new RunoutTask(combos, board, live, missing, bins, 0, runouts));
+		final double[] transitions = new double[Range.COMBOS * STATES * STATES];
+		final int[] histograms = new int[Range.COMBOS * bins];
+		for (int hand = 0; hand < combos.size; hand++) {
+			final int index = HandIndex.index(combos.hands[hand]);
+			System.arraycopy(tally.transitions, hand * STATES * STATES, transitions, index * STATES * STATES, STATES * STATES);
+			System.arraycopy(tally.histograms, hand * bins, histograms, index * bins, bins);
+		}
+		return new HandStrengthResult(board | dead, bins, transitions, histograms);
+	}
+	
+	private static void add(double[] tree, int offset, int size, int position, double value) {
+		for (int i = position + 1; i <= size; i += i & -i) tree[offset + i] += value;
+	}
+	
+	private static double sum(double[] tree, int offset, int prefix) {
+		double sum = 0;
+		for (int i = prefix; i > 0; i -= i & -i) sum += tree[offset + i];
+		return sum;
+	}
+	
+	private static class Combos {
+		final int size;
+		final long[] hands;
+		final double[] weights;
+		final int[] first;
+		final int[] second;
+		final int[] position;
+		final int[] low;
+		final int[] high;
+		final int[] cardOffset = new int[HandIndex.CARDS_IN_DECK];
+		final int[] cardSize = new int[HandIndex.CARDS_IN_DECK];
+		final int[][] cardPosition = new int[2][];
+		final int[][] cardLow = new int[2][];
+		final int[][] cardHigh = new int[2][];
+		final double villainWeight;
+		
+		Combos(Range villain, long board, long dead) {
+			final long live = Hand.HAND_MASK & ~(board | dead);
+			size = (int) Combinations.binomial(Long.bitCount(live), ExhaustiveEquity.HOLE_CARDS);
+			hands = new long[size];
+			weights = new double[size];
+			first = new int[size];
+			second = new int[size];
+			final long[] keys = new long[size];
+			long hand = Combinations.lowest(live, ExhaustiveEquity.HOLE_CARDS);
+			double total = 0;
+			for (int i = 0; i < size; i++) {
+				hands[i] = hand;
+				weights[i] = Math.max(villain.weight(hand), 0.0);
+				first[i] = HandIndex.cardNumber(hand);
+				second[i] = HandIndex.cardNumber(hand & hand - 1);
+				keys[i] = Evaluator.evaluateAny(hand | board) << INDEX_BITS | i;
+				total += weights[i];
+				hand = Combinations.nextSubset(hand, live);
+			}
+			villainWeight = total;
+			Arrays.sort(keys);
+			position = new int[size];
+			low = new int[size];
+			high = new int[size];
+			for (int group = 0, end; group < size; group = end) {
+				for (end = group; end < size && keys[end] >>> INDEX_BITS == keys[group] >>> INDEX_BITS; end++);
+				for (int k = group; k < end; k++) {
+					final int i = (int) (keys[k] & INDEX_MASK);
+					position[i] = k;
+					low[i] = group;
+					high[i] = end;
+				}
+			}
+			final int[][] cardPositions = new int[HandIndex.CARDS_IN_DECK][];
+			for (int i = 0; i < size; i++) {
+				cardSize[first[i]]++;
+				cardSize[second[i]]++;
+			}
+			for (int card = 0, offset = 0; card < HandIndex.CARDS_IN_DECK; card++) {
+				cardOffset[card] = offset;
+				cardPositions[card] = new int[cardSize[card]];
+				offset += cardSize[card] + 1;
+				cardSize[card] = 0;
+			}
+			for (int k = 0; k < size; k++) {
+				final int i = (int) (keys[k] & INDEX_MASK);
+				cardPositions[first[i]][cardSize[first[i]]++] = k;
+				cardPositions[second[i]][cardSize[second[i]]++] = k;
+			}
+			for (int side = 0; side < 2; side++) {
+				final int[] cards = side == 0 ? first : second;
+				cardPosition[side] = new int[size];
+				cardLow[side] = new int[size];
+				cardHigh[side] = new int[size];
+				for (int i = 0; i < size; i++) {
+					final int[] positions = cardPositions[cards[i]];
+					cardPosition[side][i] = Arrays.binarySearch(positions, position[i]);
+					cardLow[side][i] = count(positions, low[i]);
+					cardHigh[side][i] = count(positions, high[i]);
+				}
+			}
+		}
+		
+		private static int count(int[] sorted, int bound) {
+			int index = Arrays.binarySearch(sorted, bound);
+			return index >= 0 ? index : -index - 1;
+		}
+		
+		int treeSize() {
+			return cardOffset[HandIndex.CARDS_IN_DECK - 1] + cardSize[HandIndex.CARDS_IN_DECK - 1] + 1;
+		}
+	}
+	
+	private static class Tally {
+		final double[] transitions;
+		final int[] histograms;
+		
+		Tally(int size, int bins) {
+			transitions = new double[size * STATES * STATES];
+			histograms = new int[size * bins];
+		}
+		
+		Tally add(Tally other) {
+			for (int i = 0; i < transitions.length; i++) transitions[i] += other.transitions[i];
+			for (int i = 0; i < histograms.length; i++) histograms[i] += other.histograms[i];
+			return this;
+		}
+	}
+	
+	private static class RunoutTask extends RecursiveTask<Tally> {
+		private static final long serialVersionUID = 1L;
+		
+		private final Combos combos;
+		private final long board;
+		private final long live;
+		private final int missing;
+		private final int bins;
+		private final long from;
+		private final long to;
+		
+		RunoutTask(Combos combos, long board, long live, int missing, int bins, long from, long to) {
+			this.combos = combos;
+			this.board = board;
+			this.live = live;
+			this.missing = missing;
+			this.bins = bins;
+			this.from = from;
+			this.to = to;
+		}
+		
+		@Override
+		protected Tally compute() {
+			if (to - from <= SEQUENTIAL_THRESHOLD) return enumerate();
+			final long middle = (from + to) >>> 1;
+			final RunoutTask high = new RunoutTask(combos, board, live, missing, bins, middle, to);
+			high.fork();
+			final Tally low = new RunoutTask(combos, board, live, missing, bins, from, middle).compute();
+			return low.add(high.join());
+		}
+		
+		private Tally enumerate() {
+			final Combos c = combos;
+			final Tally tally = new Tally(c.size, bins);
+			final long[] keys = new long[c.size];
+			final double[] tree = new double[c.size + 1];
+			final double[] cardTree = new double[c.treeSize()];
+			final double[] sums = new double[c.size * 3 * STATES];
+			BoardContext context = null;
+			long cards = Combinations.unrankSubset(from, live, missing);
+			for (long i = from; i < to; i++) {
+				final long runout = board | cards;
+				if (context == null) context = new BoardContext(runout);
+				else context.setBoard(runout);
+				Arrays.fill(tree, 0.0);
+				Arrays.fill(cardTree, 0.0);
+				int count = 0;
+				for (int hand = 0; hand < c.size; hand++) {
+					if ((c.hands[hand] & runout) == 0) keys[count++] = context.evaluate(c.hands[hand]) << INDEX_BITS | hand;
+				}
+				Arrays.sort(keys, 0, count);
+				// Fenwick trees over the rank order split the villain weight; the per card trees drop combos sharing a card.
+				for (int group = 0, end; group < count; group = end) {
+					for (end = group; end < count && keys[end] >>> INDEX_BITS == keys[group] >>> INDEX_BITS; end++) query(keys[end], tree, cardTree, sums, BEFORE);
+					for (int k = group; k < end; k++) insert(keys[k], tree, cardTree);
+					for (int k = group; k < end; k++) query(keys[k], tree, cardTree, sums, AFTER);
+				}
+				for (int k = 0; k < count; k++) {
+					query(keys[k], tree, cardTree, sums, END);
+					tally(tally, (int) (keys[k] & INDEX_MASK), sums);
+				}
+				cards = Combinations.nextSubset(cards, live);
+			}
+			return tally;
+		}
+		
+		private void insert(long key, double[] tree, double[] cardTree) {
+			final Combos c = combos;
+			final int hand = (int) (key & INDEX_MASK);
+			final double weight = c.weights[hand];
+			if (weight == 0) return;
+			add(tree, 0, c.size, c.position[hand], weight);
+			add(cardTree, c.cardOffset[c.first[hand]], c.cardSize[c.first[hand]], c.cardPosition[0][hand], weight);
+			add(cardTree, c.cardOffset[c.second[hand]], c.cardSize[c.second[hand]], c.cardPosition[1][hand], weight);
+		}
+		
+		private void query(long key, double[] tree, double[] cardTree, double[] sums, int phase) {
+			final Combos c = combos;
+			final int hand = (int) (key & INDEX_MASK);
+			final int base = hand * 3 * STATES + phase;
+			final int firstOffset = c.cardOffset[c.first[hand]], secondOffset = c.cardOffset[c.second[hand]];
+			final double self = phase == BEFORE ? 0.0 : c.weights[hand];
+			sums[base] = sum(tree, 0, c.low[hand]) - sum(cardTree, firstOffset, c.cardLow[0][hand]) - sum(cardTree, secondOffset, c.cardLow[1][hand]);
+			sums[base + 1] = sum(tree, 0, c.high[hand]) - sum(cardTree, firstOffset, c.cardHigh[0][hand]) - sum(cardTree, secondOffset, c.cardHigh[1][hand]) + self;
+			sums[base + 2] = sum(tree, 0, c.size) - sum(cardTree, firstOffset, c.cardSize[c.first[hand]]) - sum(cardTree, secondOffset, c.cardSize[c.second[hand]]) + self;
+		}
+		
+		private void tally(Tally tally, int hand, double[] sums) {
+			final int base = hand * 3 * STATES;
+			final int cell = hand * STATES * STATES;
+			for (int now = 0; now < STATES; now++) {
+				for (int showdown = 0; showdown < STATES; showdown++) {
+					tally.transitions[cell + now * STATES + showdown] += split(sums, base + showdown * STATES, now) - (showdown == AHEAD ? 0.0 : split(sums, base + (showdown - 1) * STATES, now));
+				}
+			}
+			final double total = sums[base + END + 2];
+			if (total > 0) {
+				final double equity = (sums[base + BEFORE + 2] + (sums[base + AFTER + 2] - sums[base + BEFORE + 2]) / 2) / total;
+				tally.histograms[hand * bins + Math.min(bins - 1, (int) (equity * bins))]++;
+			}
+		}
+		
+		private static double split(double[] sums, int phase, int now) {
+			switch (now) {
+			case AHEAD: return sums[phase];
+			case TIED: return sums[phase + 1] - sums[phase];
+			default: return sums[phase + 2] - sums[phase + 1];
+			}
+		}
+	}
+}
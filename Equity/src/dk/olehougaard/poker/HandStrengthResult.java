@@ -0,0 +1,80 @@
+package dk.olehougaard.poker;
+
+import static dk.olehougaard.poker.HandStrength.AHEAD;
+import static dk.olehougaard.poker.HandStrength.BEHIND;
+import static dk.olehougaard.poker.HandStrength.STATES;
+import static dk.olehougaard.poker.HandStrength.TIED;
+
+import java.util.Arrays;
+
+public class HandStrengthResult {
+	private final long blocked;
+	private final int bins;
+	private final double[] transitions;
+	private final int[] histograms;
+	
+	HandStrengthResult(long blocked, int bins, double[] transitions, int[] histograms) {
+		this.blocked = blocked;
+		this.bins = bins;
+		this.transitions = transitions;
+		this.histograms = histograms;
+	}
+	
+	public int getBins() {
+		return bins;
+	}
+	
+	private int index(long holeCards) {
+		ExhaustiveEquity.checkHoleCards(holeCards);
+		if ((holeCards & blocked) != 0) throw new IllegalArgumentException("Hole cards overlap the board or dead cards: " + Long.toHexString(holeCards));
+		return HandIndex.index(holeCards);
+	}
+	
+	private double transition(int index, int now, int showdown) {
+		return transitions[index * STATES * STATES + now * STATES + showdown];
+	}
+	
+	private double now(int index, int state) {
+		return transition(index, state, AHEAD) + transition(index, state, TIED) + transition(index, state, BEHIND);
+	}
+	
+	private double showdown(int index, int state) {
+		return transition(index, AHEAD, state) + transition(index, TIED, state) + transition(index, BEHIND, state);
+	}
+	
+	public double getHandStrength(long holeCards) {
+		final int index = index(holeCards);
+		final double ahead = now(index, AHEAD), tied = now(index, TIED);
+		return (ahead + tied / 2) / (ahead + tied + now(index, BEHIND));
+	}
+	
+	public double getEquity(long holeCards) {
+		final int index = index(holeCards);
+		final double ahead = showdown(index, AHEAD), tied = showdown(index, TIED);
+		return (ahead + tied / 2) / (ahead + tied + showdown(index, BEHIND));
+	}
+	
+	public double getPositivePotential(long holeCards) {
+		final int index = index(holeCards);
+		final double improved = transition(index, BEHIND, AHEAD) + (transition(index, BEHIND, TIED) + transition(index, TIED, AHEAD)) / 2;
+		final double chances = now(index, BEHIND) + now(index, TIED) / 2;
+		return chances == 0 ? 0.0 : improved / chances;
+	}
+	
+	public double getNegativePotential(long holeCards) {
+		final int index = index(holeCards);
+		final double worsened = transition(index, AHEAD, BEHIND) + (transition(index, AHEAD, TIED) + transition(index, TIED, BEHIND)) / 2;
+		final double chances = now(index, AHEAD) + now(index, TIED) / 2;
+		return chances == 0 ? 0.0 : worsened / chances;
+	}
+	
+	public double getEffectiveHandStrength(long holeCards) {
+		final double strength = getHandStrength(holeCards);
+		return strength * (1 - getNegativePotential(holeCards)) + (1 - strength) * getPositivePotential(holeCards);
+	}
+	
+	public int[] getHistogram(long holeCards) {
+		final int index = index(holeCards);
+		return Arrays.copyOfRange(histograms, index * bins, (index + 1) * bins);
+	}
+}
@@ -0,0 +1,67 @@
+package dk.olehougaard.poker;
+
+public class HiLoEquity {
+	public static HiLoResult enumerate(long[] players, long board, long dead) {
+		final long start = Metrics.ENABLED ? System.nanoTime() : 0L;
+		final long known = MultiwayEquity.check(players, board, dead);
+		final long[] seats = players.clone();
+		final HiLoResult result = MultiwayEquity.enumerate(known, board, () -> new Showdown(seats), HiLoResult::add);
+		if (Metrics.ENABLED) Metrics.job("hiLo", result.getRunouts(), start);
+		return result;
+	}
+	
+	private static class Showdown implements MultiwayEquity.Tally<HiLoResult> {
+		final long[] players;
+		final long[] scoops;
+		final double[] highShares;
+		final double[] lowShares;
+		long runouts = 0;
+		long lowRunouts = 0;
+		
+		Showdown(long[] players) {
+			this.players = players;
+			scoops = new long[players.length];
+			highShares = new double[players.length];
+			lowShares = new double[players.length];
+		}
+		
+		@Override
+		public void showdown(long board) {
+			long bestHigh = Long.MIN_VALUE, bestLow = 0L;
+			int highWinners = 0, lowWinners = 0;
+			for (int player = 0; player < players.length; player++) {
+				final long rank = Evaluator.evaluateHiLo(players[player] | board);
+				final long high = rank & Evaluator.HIGH_MASK, low = rank & Evaluator.LOW_MASK;
+				if (high > bestHigh) {
+					bestHigh = high;
+					highWinners = 1 << player;
+				} else if (high == bestHigh) {
+					highWinners |= 1 << player;
+				}
+				if (low == 0) continue;
+				if (low > bestLow) {
+					bestLow = low;
+					lowWinners = 1 << player;
+				} else if (low == bestLow) {
+					lowWinners |= 1 << player;
+				}
+			}
+			// Without a qualifying low the high hands take the whole pot.
+			final double half = lowWinners == 0 ? 1.0 : 0.5;
+			final double highShare = half / Integer.bitCount(highWinners);
+			for (int rest = highWinners; rest != 0; rest &= rest - 1) highShares[Integer.numberOfTrailingZeros(rest)] += highShare;
+			if (lowWinners != 0) {
+				final double lowShare = 0.5 / Integer.bitCount(lowWinners);
+				for (int rest = lowWinners; rest != 0; rest &= rest - 1) lowShares[Integer.numberOfTrailingZeros(rest)] += lowShare;
+				lowRunouts++;
+			}
+			if (Integer.bitCount(highWinners) == 1 && (lowWinners == 0 || lowWinners == highWinners)) scoops[Integer.numberOfTrailingZeros(highWinners)]++;
+			runouts++;
+		}
+		
+		@Override
+		public HiLoResult result() {
+			return new HiLoResult(players.length, runouts, lowRunouts, scoops, highShares, lowShares);
+		}
+	}
+}
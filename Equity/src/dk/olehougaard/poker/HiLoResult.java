@@ -0,0 +1,77 @@
+package dk.olehougaard.poker;
+
+import java.util.Arrays;
+
+public class HiLoResult {
+	private final int players;
+	private final long runouts;
+	private final long lowRunouts;
+	private final long[] scoops;
+	private final double[] highShares;
+	private final double[] lowShares;
+	
+	public HiLoResult(int players, long runouts, long lowRunouts, long[] scoops, double[] highShares, double[] lowShares) {
+		if (scoops.length != players || highShares.length != players || lowShares.length != players) throw new IllegalArgumentException("Wrong result dimensions");
+		this.players = players;
+		this.runouts = runouts;
+		this.lowRunouts = lowRunouts;
+		this.scoops = scoops;
+		this.highShares = highShares;
+		this.lowShares = lowShares;
+	}
+	
+	public int getPlayers() {
+		return players;
+	}
+	
+	public long getRunouts() {
+		return runouts;
+	}
+	
+	public long getLowRunouts() {
+		return lowRunouts;
+	}
+	
+	public long getScoops(int player) {
+		return scoops[player];
+	}
+	
+	public double getScoopRate(int player) {
+		return (double) scoops[player] / runouts;
+	}
+	
+	public double getHighShare(int player) {
+		return highShares[player];
+	}
+	
+	public double getLowShare(int player) {
+		return lowShares[player];
+	}
+	
+	public double getEquity(int player) {
+		return (highShares[player] + lowShares[player]) / runouts;
+	}
+	
+	public double[] getEquities() {
+		double[] equities = new double[players];
+		for (int player = 0; player < players; player++) equities[player] = getEquity(player);
+		return equities;
+	}
+	
+	public HiLoResult add(HiLoResult other) {
+		final long[] scoops = this.scoops.clone();
+		final double[] highShares = this.highShares.clone();
+		final double[] lowShares = this.lowShares.clone();
+		for (int i = 0; i < players; i++) {
+			scoops[i] += other.scoops[i];
+			highShares[i] += other.highShares[i];
+			lowShares[i] += other.lowShares[i];
+		}
+		return new HiLoResult(players, runouts + other.runouts, lowRunouts + other.lowRunouts, scoops, highShares, lowShares);
+	}
+	
+	@Override
+	public String toString() {
+		return "HiLoResult [runouts=" + runouts + ", lowRunouts=" + lowRunouts + ", equities=" + Arrays.toString(getEquities()) + "]";
+	}
+}
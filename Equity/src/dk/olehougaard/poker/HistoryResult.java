@@ -0,0 +1,66 @@
+package dk.olehougaard.poker;
+
+import java.util.Arrays;
+
+public class HistoryResult {
+	private final long hands;
+	private final long malformed;
+	private final long mismatches;
+	private final long allIns;
+	private final double[] expected;
+	private final double[] actual;
+	
+	public HistoryResult(long hands, long malformed, long mismatches, long allIns, double[] expected, double[] actual) {
+		if (expected.length != MultiwayEquity.MAX_PLAYERS || actual.length != MultiwayEquity.MAX_PLAYERS) throw new IllegalArgumentException("Wrong result dimensions");
+		this.hands = hands;
+		this.malformed = malformed;
+		this.mismatches = mismatches;
+		this.allIns = allIns;
+		this.expected = expected;
+		this.actual = actual;
+	}
+	
+	public long getHands() {
+		return hands;
+	}
+	
+	public long getMalformed() {
+		return malformed;
+	}
+	
+	public long getMismatches() {
+		return mismatches;
+	}
+	
+	public long getAllIns() {
+		return allIns;
+	}
+	
+	public double getExpected(int seat) {
+		return expected[seat];
+	}
+	
+	public double getActual(int seat) {
+		return actual[seat];
+	}
+	
+	public double getAdjustment(int seat) {
+		return expected[seat] - actual[seat];
+	}
+	
+	public HistoryResult add(HistoryResult other) {
+		final double[] expected = this.expected.clone();
+		final double[] actual = this.actual.clone();
+		for (int seat = 0; seat < expected.length; seat++) {
+			expected[seat] += other.expected[seat];
+			actual[seat] += other.actual[seat];
+		}
+		return new HistoryResult(hands + other.hands, malformed + other.malformed, mismatches + other.mismatches, allIns + other.allIns, expected, actual);
+	}
+	
+	@Override
+	public String toString() {
+		return "HistoryResult [hands=" + hands + ", malformed=" + malformed + ", mismatches=" + mismatches + ", allIns=" + allIns 
+				+ ", expected=" + Arrays.toString(expected) + ", actual=" + Arrays.toString(actual) + "]";
+	}
+}
@@ -0,0 +1,118 @@
+package dk.olehougaard.poker;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+
+public class Metrics {
+	public static final String PROPERTY = "dk.olehougaard.poker.metrics";
+	// A static final switch, so the JIT folds the instrumented branches away when metrics are off.
+	public static final boolean ENABLED = Boolean.getBoolean(PROPERTY);
+	
+	public interface JobListener {
+		void completed(Job job);
+	}
+	
+	public static class Job {
+		private final String name;
+		private final long boards;
+		private final long nanos;
+		private final int threads;
+		private final boolean cacheHit;
+		
+		Job(String name, long boards, long nanos, int threads, boolean cacheHit) {
+			this.name = name;
+			this.boards = boards;
+			this.nanos = nanos;
+			this.threads = threads;
+			this.cacheHit = cacheHit;
+		}
+		
+		public String getName() {
+			return name;
+		}
+		
+		public long getBoards() {
+			return boards;
+		}
+		
+		public long getNanos() {
+			return nanos;
+		}
+		
+		public int getThreads() {
+			return threads;
+		}
+		
+		public boolean isCacheHit() {
+			return cacheHit;
+		}
+		
+		@Override
+		public String toString() {
+			return "Job [name=" + name + ", boards=" + boards + ", nanos=" + nanos + ", threads=" + threads + ", cacheHit=" + cacheHit + "]";
+		}
+	}
+	
+	private static final LongAdder[] EVALUATIONS = new LongAdder[HandCategory.values().length];
+	private static final LongAdder JOBS = new LongAdder();
+	private static final LongAdder BOARDS = new LongAdder();
+	private static final LongAdder JOB_NANOS = new LongAdder();
+	private static final LongAdder CACHE_HITS = new LongAdder();
+	private static final LongAdder CACHE_MISSES = new LongAdder();
+	private static final List<JobListener> LISTENERS = new CopyOnWriteArrayList<>();
+	
+	static {
+		for (int i = 0; i < EVALUATIONS.length; i++) EVALUATIONS[i] = new LongAdder();
+	}
+	
+	static void evaluated(long rank) {
+		EVALUATIONS[HandCategory.ordinalOf(rank)].increment();
+	}
+	
+	static void job(String name, long boards, long start) {
+		job(name, boards, ForkJoinPool.commonPool().getParallelism(), start);
+	}
+	
+	static void job(String name, long boards, int threads, long start) {
+		final long nanos = System.nanoTime() - start;
+		JOBS.increment();
+		BOARDS.add(boards);
+		JOB_NANOS.add(nanos);
+		if (!LISTENERS.isEmpty()) completed(new Job(name, boards, nanos, threads, false));
+	}
+	
+	static void cached(boolean hit, long start) {
+		final long nanos = System.nanoTime() - start;
+		(hit ? CACHE_HITS : CACHE_MISSES).increment();
+		if (!LISTENERS.isEmpty()) completed(new Job("cache", 0L, nanos, 1, hit));
+	}
+	
+	private static void completed(Job job) {
+		for (JobListener listener : LISTENERS) listener.completed(job);
+	}
+	
+	public static void addListener(JobListener listener) {
+		LISTENERS.add(listener);
+	}
+	
+	public static void removeListener(JobListener listener) {
+		LISTENERS.remove(listener);
+	}
+	
+	public static MetricsSnapshot snapshot() {
+		final long[] evaluations = new long[EVALUATIONS.length];
+		for (int i = 0; i < evaluations.length; i++) evaluations[i] = EVALUATIONS[i].sum();
+		return new MetricsSnapshot(evaluations, JOBS.sum(), BOARDS.sum(), JOB_NANOS.sum(), CACHE_HITS.sum(), CACHE_MISSES.sum());
+	}
+	
+	public static void reset() {
+		for (LongAdder evaluations : EVALUATIONS) evaluations.reset();
+		JOBS.reset();
+		BOARDS.reset();
+		JOB_NANOS.reset();
+		CACHE_HITS.reset();
+		CACHE_MISSES.reset();
+	}
+}
@@ -0,0 +1,62 @@
+package dk.olehougaard.poker;
+
+import java.util.Arrays;
+
+public class MetricsSnapshot {
+	private final long[] evaluations;
+	private final long jobs;
+	private final long boards;
+	private final long jobNanos;
+	private final long cacheHits;
+	private final long cacheMisses;
+	
+	MetricsSnapshot(long[] evaluations, long jobs, long boards, long jobNanos, long cacheHits, long cacheMisses) {
+		this.evaluations = evaluations;
+		this.jobs = jobs;
+		this.boards = boards;
+		this.jobNanos = jobNanos;
+		this.cacheHits = cacheHits;
+		this.cacheMisses = cacheMisses;
+	}
+	
+	public long getEvaluations(HandCategory category) {
+		return evaluations[category.ordinal()];
+	}
+	
+	public long getEvaluations() {
+		long total = 0;
+		for (long count : evaluations) total += count;
+		return total;
+	}
+	
+	public long getJobs() {
+		return jobs;
+	}
+	
+	public long getBoards() {
+		return boards;
+	}
+	
+	public long getJobNanos() {
+		return jobNanos;
+	}
+	
+	public long getCacheHits() {
+		return cacheHits;
+	}
+	
+	public long getCacheMisses() {
+		return cacheMisses;
+	}
+	
+	public double getCacheHitRate() {
+		final long lookups = cacheHits + cacheMisses;
+		return lookups == 0 ? 0.0 : (double) cacheHits / lookups;
+	}
+	
+	@Override
+	public String toString() {
+		return "MetricsSnapshot [evaluations=" + Arrays.toString(evaluations) + ", jobs=" + jobs + ", boards=" + boards 
+				+ ", jobNanos=" + jobNanos + ", cacheHits=" + cacheHits + ", cacheMisses=" + cacheMisses + "]";
+	}
+}
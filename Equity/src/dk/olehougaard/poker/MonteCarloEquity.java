@@ -0,0 +1,155 @@
+package dk.olehougaard.poker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+public class MonteCarloEquity {
+	public static final int BATCH_SIZE = 1 << 12;
+	public static final long MINIMUM_SAMPLES = 1 << 14;
+	
+	public static SampledEquity headsUp(long hero, long villain, long board, long dead, double targetStandardError, long timeBudgetNanos) {
+		return sample(hero, new long[] { villain }, board, dead, targetStandardError, timeBudgetNanos, new SplittableRandom());
+	}
+	
+	public static SampledEquity sample(long hero, long[] opponents, long board, long dead, double targetStandardError, long timeBudgetNanos) {
+		return sample(hero, opponents, board, dead, targetStandardError, timeBudgetNanos, new SplittableRandom());
+	}
+	
+	public static SampledEquity sample(long hero, long[] opponents, long board, long dead, double targetStandardError, long timeBudgetNanos, SplittableRandom random) {
+		final long start = Metrics.ENABLED ? System.nanoTime() : 0L;
+		ExhaustiveEquity.checkHoleCards(hero);
+		ExhaustiveEquity.checkBoard(board);
+		if (opponents.length == 0) throw new IllegalArgumentException("No opponents");
+		long known = hero | board | dead;
+		ExhaustiveEquity.checkDisjoint(hero, board, dead);
+		for (long opponent : opponents) {
+			if (opponent != 0L) {
+				ExhaustiveEquity.checkHoleCards(opponent);
+				ExhaustiveEquity.checkDisjoint(known, opponent);
+				known |= opponent;
+			}
+		}
+		final int randomOpponents = countRandom(opponents);
+		final int missing = ExhaustiveEquity.BOARD_SIZE - Long.bitCount(board);
+		if (Long.bitCount(Hand.HAND_MASK & ~known) < missing + ExhaustiveEquity.HOLE_CARDS * randomOpponents) 
+			throw new IllegalArgumentException("Not enough live cards to deal");
+		if (targetStandardError <= 0 && timeBudgetNanos <= 0) throw new IllegalArgumentException("No stopping criterion");
+		
+		final Accumulator accumulator = new Accumulator(targetStandardError, timeBudgetNanos > 0 ? System.nanoTime() + timeBudgetNanos : Long.MAX_VALUE);
+		final int workers = ForkJoinPool.commonPool().getParallelism();
+		final List<Worker> tasks = new ArrayList<>(workers);
+		for (int i = 0; i < workers; i++) {
+			tasks.add(new Worker(hero, opponents, board, known, missing, random.split(), accumulator));
+		}
+		ForkJoinTask.invokeAll(tasks);
+		final SampledEquity result = accumulator.result();
+		if (Metrics.ENABLED) Metrics.job("monteCarlo", result.getSamples(), workers, start);
+		return result;
+	}
+	
+	private static int countRandom(long[] opponents) {
+		int count = 0;
+		for (long opponent : opponents) {
+			if (opponent == 0L) count++;
+		}
+		return count;
+	}
+	
+	private static class Accumulator {
+		private final double targetStandardError;
+		private final long deadline;
+		private long samples = 0;
+		private double sum = 0.0;
+		private double sumOfSquares = 0.0;
+		private volatile boolean done = false;
+		
+		Accumulator(double targetStandardError, long deadline) {
+			this.targetStandardError = targetStandardError;
+			this.deadline = deadline;
+		}
+		
+		synchronized void merge(long batchSamples, double batchSum, double batchSumOfSquares) {
+			samples += batchSamples;
+			sum += batchSum;
+			sumOfSquares += batchSumOfSquares;
+			if (samples >= MINIMUM_SAMPLES && standardError() <= targetStandardError) done = true;
+			if (System.nanoTime() >= deadline) done = true;
+		}
+		
+		private double standardError() {
+			if (samples < 2) return Double.POSITIVE_INFINITY;
+			final double mean = sum / samples;
+			final double variance = Math.max(0.0, (sumOfSquares - samples * mean * mean) / (samples - 1));
+			return Math.sqrt(variance / samples);
+		}
+		
+		synchronized SampledEquity result() {
+			return new SampledEquity(samples, samples == 0 ? Double.NaN : sum / samples, standardError());
+		}
+	}
+	
+	private static class Worker extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		
+		private final long hero;
+		private final long[] opponents;
+		private final long board;
+		private final long known;
+		private final int missing;
+		private final SplittableRandom random;
+		private final Accumulator accumulator;
+		
+		Worker(long hero, long[] opponents, long board, long known, int missing, SplittableRandom random, Accumulator accumulator) {
+			this.hero = hero;
+			this.opponents = opponents;
+			this.board = board;
+			this.known = known;
+			this.missing = missing;
+			this.random = random;
+			this.accumulator = accumulator;
+		}
+
+		@Override
+		protected void compute() {
+			while (!accumulator.done) {
+				double sum = 0.0;
+				double sumOfSquares = 0.0;
+				for (int i = 0; i < BATCH_SIZE; i++) {
+					final double share = sample();
+					sum += share;
+					sumOfSquares += share * share;
+				}
+				accumulator.merge(BATCH_SIZE, sum, sumOfSquares);
+			}
+		}
+		
+		private double sample() {
+			long used = known;
+			long runout = board;
+			for (int i = 0; i < missing; i++) {
+				final long card = Dealer.dealCard(random, used);
+				used |= card;
+				runout |= card;
+			}
+			final long heroRank = Evaluator.evaluate(hero | runout);
+			int tied = 1;
+			for (long opponent : opponents) {
+				if (opponent == 0L) {
+					final long first = Dealer.dealCard(random, used);
+					used |= first;
+					final long second = Dealer.dealCard(random, used);
+					used |= second;
+					opponent = first | second;
+				}
+				final long rank = Evaluator.evaluate(opponent | runout);
+				if (rank > heroRank) return 0.0;
+				if (rank == heroRank) tied++;
+			}
+			return 1.0 / tied;
+		}
+	}
+}
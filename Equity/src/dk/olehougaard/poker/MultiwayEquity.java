@@ -0,0 +1,196 @@
+package dk.olehougaard.poker;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.LongBinaryOperator;
+import java.util.function.Supplier;
+
+public class MultiwayEquity {
+	public static final int MIN_PLAYERS = 2;
+	public static final int MAX_PLAYERS = 10;
+	
+	private static final long SEQUENTIAL_THRESHOLD = 1 << 14;
+	
+	static final LongBinaryOperator HOLDEM = (board, holeCards) -> Evaluator.evaluate(holeCards | board);
+	
+	interface Tally<R> {
+		void showdown(long board);
+		
+		R result();
+	}
+	
+	public static MultiwayResult enumerate(long[] players, long board, long dead) {
+		final long start = Metrics.ENABLED ? System.nanoTime() : 0L;
+		final long known = check(players, board, dead);
+		final long[] seats = players.clone();
+		final MultiwayResult result = enumerate(known, board, () -> new Showdown(seats, HOLDEM), MultiwayResult::add);
+		if (Metrics.ENABLED) Metrics.job("multiway", result.getRunouts(), start);
+		return result;
+	}
+	
+	static <R> R enumerate(long known, long board, Supplier<? extends Tally<R>> tallies, BinaryOperator<R> merge) {
+		final long live = Hand.HAND_MASK & ~known;
+		final int missing = ExhaustiveEquity.BOARD_SIZE - Long.bitCount(board);
+		final long boards = Combinations.binomial(Long.bitCount(live), missing);
+		if (boards == 0) throw new IllegalArgumentException("Not enough live cards to complete the board");
+		return ForkJoinPool.commonPool().invoke(new EnumerationTask<>(board, live, missing, tallies, merge, 0, boards));
+	}
+	
+	public static MultiwayResult sample(long[] players, long board, long dead, long samples, SplittableRandom random) {
+		final long start = Metrics.ENABLED ? System.nanoTime() : 0L;
+		final long known = check(players, board, dead);
+		final int missing = ExhaustiveEquity.BOARD_SIZE - Long.bitCount(board);
+		if (Long.bitCount(Hand.HAND_MASK & ~known) < missing) throw new IllegalArgumentException("Not enough live cards to complete the board");
+		if (samples <= 0) throw new IllegalArgumentException("No samples requested: " + samples);
+		final MultiwayResult result = ForkJoinPool.commonPool().invoke(new SamplingTask(players.clone(), board, known, missing, samples, random.split()));
+		if (Metrics.ENABLED) Metrics.job("multiway.sampled", samples, start);
+		return result;
+	}
+	
+	static long check(long[] players, long board, long dead) {
+		if (players.length < MIN_PLAYERS || players.length > MAX_PLAYERS) 
+			throw new IllegalArgumentException("Not between " + MIN_PLAYERS + " and " + MAX_PLAYERS + " players: " + players.length);
+		ExhaustiveEquity.checkBoard(board);
+		ExhaustiveEquity.checkDisjoint(board, dead);
+		long known = board | dead;
+		for (long player : players) {
+			ExhaustiveEquity.checkHoleCards(player);
+			ExhaustiveEquity.checkDisjoint(known, player);
+			known |= player;
+		}
+		return known;
+	}
+	
+	static class Showdown implements Tally<MultiwayResult> {
+		final long[] players;
+		final LongBinaryOperator evaluator;
+		final long[] ranks;
+		final long[] wins;
+		final long[] ties;
+		long runouts = 0;
+		
+		Showdown(long[] players, LongBinaryOperator evaluator) {
+			this.players = players;
+			this.evaluator = evaluator;
+			ranks = new long[players.length];
+			wins = new long[players.length];
+			ties = new long[players.length * (players.length + 1)];
+		}
+		
+		@Override
+		public void showdown(long board) {
+			long best = Long.MIN_VALUE;
+			int winners = 0;
+			for (int player = 0; player < players.length; player++) {
+				final long rank = evaluator.applyAsLong(board, players[player]);
+				ranks[player] = rank;
+				if (rank > best) {
+					best = rank;
+					winners = 1;
+				} else if (rank == best) {
+					winners++;
+				}
+			}
+			if (winners == 1) {
+				int player = 0;
+				while (ranks[player] != best) player++;
+				wins[player]++;
+			} else {
+				for (int player = 0; player < players.length; player++) {
+					if (ranks[player] == best) ties[MultiwayResult.tieIndex(players.length, player, winners)]++;
+				}
+			}
+			runouts++;
+		}
+		
+		@Override
+		public MultiwayResult result() {
+			return new MultiwayResult(players.length, runouts, wins, ties);
+		}
+	}
+	
+	private static class EnumerationTask<R> extends RecursiveTask<R> {
+		private static final long serialVersionUID = 1L;
+		
+		private final long board;
+		private final long live;
+		private final int missing;
+		private final Supplier<? extends Tally<R>> tallies;
+		private final BinaryOperator<R> merge;
+		private final long from;
+		private final long to;
+		
+		EnumerationTask(long board, long live, int missing, Supplier<? extends Tally<R>> tallies, BinaryOperator<R> merge, long from, long to) {
+			this.board = board;
+			this.live = live;
+			this.missing = missing;
+			this.tallies = tallies;
+			this.merge = merge;
+			this.from = from;
+			this.to = to;
+		}
+		
+		@Override
+		protected R compute() {
+			if (to - from > SEQUENTIAL_THRESHOLD) {
+				final long middle = (from + to) >>> 1;
+				final EnumerationTask<R> high = new EnumerationTask<>(board, live, missing, tallies, merge, middle, to);
+				high.fork();
+				final R low = new EnumerationTask<>(board, live, missing, tallies, merge, from, middle).compute();
+				return merge.apply(low, high.join());
+			}
+			final Tally<R> tally = tallies.get();
+			long runout = Combinations.unrankSubset(from, live, missing);
+			for (long i = from; i < to; i++) {
+				tally.showdown(board | runout);
+				runout = Combinations.nextSubset(runout, live);
+			}
+			return tally.result();
+		}
+	}
+	
+	private static class SamplingTask extends RecursiveTask<MultiwayResult> {
+		private static final long serialVersionUID = 1L;
+		
+		private final long[] players;
+		private final long board;
+		private final long known;
+		private final int missing;
+		private final long samples;
+		private final SplittableRandom random;
+
+		SamplingTask(long[] players, long board, long known, int missing, long samples, SplittableRandom random) {
+			this.players = players;
+			this.board = board;
+			this.known = known;
+			this.missing = missing;
+			this.samples = samples;
+			this.random = random;
+		}
+
+		@Override
+		protected MultiwayResult compute() {
+			if (samples > SEQUENTIAL_THRESHOLD) {
+				final long half = samples >>> 1;
+				final SamplingTask high = new SamplingTask(players, board, known, missing, samples - half, random.split());
+				high.fork();
+				final MultiwayResult low = new SamplingTask(players, board, known, missing, half, random).compute();
+				return low.add(high.join());
+			}
+			final Showdown showdown = new Showdown(players, HOLDEM);
+			for (long i = 0; i < samples; i++) {
+				long used = known;
+				long runout = board;
+				for (int card = 0; card < missing; card++) {
+					final long dealt = Dealer.dealCard(random, used);
+					used |= dealt;
+					runout |= dealt;
+				}
+				showdown.showdown(runout);
+			}
+			return showdown.result();
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package dk.olehougaard.poker;
+
+import java.util.Arrays;
+
+public class MultiwayResult {
+	private final int players;
+	private final long runouts;
+	private final long[] wins;
+	private final long[] ties;
+
+	public MultiwayResult(int players, long runouts, long[] wins, long[] ties) {
+		if (wins.length != players || ties.length != players * (players + 1)) throw new IllegalArgumentException("Wrong result dimensions");
+		this.players = players;
+		this.runouts = runouts;
+		this.wins = wins;
+		this.ties = ties;
+	}
+	
+	static int tieIndex(int players, int player, int ways) {
+		return player * (players + 1) + ways;
+	}
+
+	public int getPlayers() {
+		return players;
+	}
+
+	public long getRunouts() {
+		return runouts;
+	}
+
+	public long getWins(int player) {
+		return wins[player];
+	}
+	
+	public long getTies(int player, int ways) {
+		return ties[tieIndex(players, player, ways)];
+	}
+	
+	public long getTies(int player) {
+		long count = 0;
+		for (int ways = 2; ways <= players; ways++) count += getTies(player, ways);
+		return count;
+	}
+	
+	public double getTieShare(int player) {
+		double share = 0.0;
+		for (int ways = 2; ways <= players; ways++) share += (double) getTies(player, ways) / ways;
+		return share;
+	}
+	
+	public double getEquity(int player) {
+		return (wins[player] + getTieShare(player)) / runouts;
+	}
+	
+	public long[] getWins() {
+		return wins.clone();
+	}
+	
+	public double[] getTieShares() {
+		double[] shares = new double[players];
+		for (int player = 0; player < players; player++) shares[player] = getTieShare(player);
+		return shares;
+	}
+	
+	public double[] getEquities() {
+		double[] equities = new double[players];
+		for (int player = 0; player < players; player++) equities[player] = getEquity(player);
+		return equities;
+	}
+	
+	public MultiwayResult add(MultiwayResult other) {
+		final long[] wins = this.wins.clone();
+		final long[] ties = this.ties.clone();
+		for (int i = 0; i < wins.length; i++) wins[i] += other.wins[i];
+		for (int i = 0; i < ties.length; i++) ties[i] += other.ties[i];
+		return new MultiwayResult(players, runouts + other.runouts, wins, ties);
+	}
+
+	@Override
+	public String toString() {
+		return "MultiwayResult [runouts=" + runouts + ", equities=" + Arrays.toString(getEquities()) + "]";
+	}
+}
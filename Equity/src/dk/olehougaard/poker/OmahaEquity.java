@@ -0,0 +1,30 @@
+package dk.olehougaard.poker;
+
+import java.util.function.LongBinaryOperator;
+
+public class OmahaEquity {
+	private static final LongBinaryOperator OMAHA = (board, holeCards) -> OmahaEvaluator.evaluate(holeCards, board);
+	
+	public static MultiwayResult enumerate(long[] players, long board, long dead) {
+		final long start = Metrics.ENABLED ? System.nanoTime() : 0L;
+		final long known = check(players, board, dead);
+		final long[] seats = players.clone();
+		final MultiwayResult result = MultiwayEquity.enumerate(known, board, () -> new MultiwayEquity.Showdown(seats, OMAHA), MultiwayResult::add);
+		if (Metrics.ENABLED) Metrics.job("omaha", result.getRunouts(), start);
+		return result;
+	}
+	
+	static long check(long[] players, long board, long dead) {
+		if (players.length < MultiwayEquity.MIN_PLAYERS || players.length > MultiwayEquity.MAX_PLAYERS) 
+			throw new IllegalArgumentException("Not between " + MultiwayEquity.MIN_PLAYERS + " and " + MultiwayEquity.MAX_PLAYERS + " players: " + players.length);
+		ExhaustiveEquity.checkBoard(board);
+		ExhaustiveEquity.checkDisjoint(board, dead);
+		long known = board | dead;
+		for (long player : players) {
+			OmahaEvaluator.checkHoleCards(player);
+			ExhaustiveEquity.checkDisjoint(known, player);
+			known |= player;
+		}
+		return known;
+	}
+}
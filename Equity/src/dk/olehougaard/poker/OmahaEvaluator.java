@@ -0,0 +1,150 @@
+package dk.olehougaard.poker;
+
+import static dk.olehougaard.poker.Evaluator.BOAT_MASK;
+import static dk.olehougaard.poker.Evaluator.FLUSH_MASK;
+import static dk.olehougaard.poker.Evaluator.LSP_INDEX;
+import static dk.olehougaard.poker.Evaluator.MSP_INDEX;
+import static dk.olehougaard.poker.Evaluator.QUAD_MASK;
+import static dk.olehougaard.poker.Evaluator.SF_MASK;
+import static dk.olehougaard.poker.Evaluator.STRAIGHT_MASK;
+import static dk.olehougaard.poker.Evaluator.TRIP_MASK;
+import static dk.olehougaard.poker.Evaluator.TWO_PAIR_MASK;
+import static dk.olehougaard.poker.Evaluator.WHEEL_PATTERN;
+import static dk.olehougaard.poker.Hand.ACE_INDEX;
+import static dk.olehougaard.poker.Hand.BITS_PER_SUIT;
+import static dk.olehougaard.poker.Hand.CLUB_MASK;
+import static dk.olehougaard.poker.Hand.FIVE_INDEX;
+import static dk.olehougaard.poker.Hand.LOW_ACE_INDEX;
+
+public class OmahaEvaluator {
+	public static final int MIN_HOLE_CARDS = 4;
+	public static final int MAX_HOLE_CARDS = 6;
+	public static final int HOLE_CARDS_USED = 2;
+	public static final int BOARD_CARDS_USED = 3;
+	
+	private static final int SUITS = 4;
+	private static final int RANK_MASK = BITS_PER_SUIT - 1;
+	private static final long ALL_STRAIGHTS = (1L << (ACE_INDEX - FIVE_INDEX + 1)) - 1;
+	
+	static void checkHoleCards(long holeCards) {
+		final int size = Long.bitCount(holeCards);
+		if (size < MIN_HOLE_CARDS || size > MAX_HOLE_CARDS || (holeCards & ~Hand.HAND_MASK) != 0)
+			throw new IllegalArgumentException("Not Omaha hole cards: " + Long.toHexString(holeCards));
+	}
+	
+	public static long evaluate(long holeCards, long board) {
+		checkHoleCards(holeCards);
+		if (Long.bitCount(board) != ExhaustiveEquity.BOARD_SIZE || (board & ~Hand.HAND_MASK) != 0) throw new IllegalArgumentException("Not a board: " + Long.toHexString(board));
+		if ((holeCards & board) != 0) throw new IllegalArgumentException("Hole cards overlap the board: " + Long.toHexString(holeCards & board));
+		final long clubs = board & CLUB_MASK;
+		final long diamonds = (board >>> BITS_PER_SUIT) & CLUB_MASK;
+		final long hearts = (board >>> 2 * BITS_PER_SUIT) & CLUB_MASK;
+		final long spades = board >>> 3 * BITS_PER_SUIT;
+		final long ones = clubs | diamonds | hearts | spades;
+		final long twos = (clubs & (diamonds | hearts | spades)) | (diamonds & (hearts | spades)) | (hearts & spades);
+		final long threes = (clubs & diamonds & (hearts | spades)) | ((clubs | diamonds) & hearts & spades);
+		int flushSuit = -1;
+		long flushLane = 0L;
+		for (int suit = 0; suit < SUITS; suit++) {
+			final long lane = (board >>> suit * BITS_PER_SUIT) & CLUB_MASK;
+			if (Long.bitCount(lane) >= BOARD_CARDS_USED) {
+				flushSuit = suit;
+				flushLane = lane;
+			}
+		}
+		final long values = lowAce(ones);
+		long straights = 0L;
+		for (int start = 0; start <= ACE_INDEX - FIVE_INDEX; start++) {
+			if (Long.bitCount((WHEEL_PATTERN << start) & values) >= BOARD_CARDS_USED) straights |= 1L << start;
+		}
+		// Each pair of hole cards is matched against the board multiplicities instead of enumerating the three card board subsets.
+		long best = 0L;
+		for (long first = holeCards; first != 0; first &= first - 1) {
+			final int i = Long.numberOfTrailingZeros(first);
+			for (long second = first & first - 1; second != 0; second &= second - 1) {
+				final int j = Long.numberOfTrailingZeros(second);
+				long rank = 0L;
+				if (i / BITS_PER_SUIT == flushSuit && j / BITS_PER_SUIT == flushSuit) rank = flush(1L << (i & RANK_MASK) | 1L << (j & RANK_MASK), flushLane);
+				final long a = 1L << Math.max(i & RANK_MASK, j & RANK_MASK), b = 1L << Math.min(i & RANK_MASK, j & RANK_MASK);
+				if (a == b) {
+					rank = Math.max(rank, pocketPair(a, ones, twos, threes));
+				} else {
+					final long straight = straights == 0 ? 0L : straight(a | b, values, straights);
+					if (straight != 0) rank = Math.max(rank, STRAIGHT_MASK | straight);
+					rank = Math.max(rank, unpaired(a, b, ones, twos, threes));
+				}
+				best = Math.max(best, rank);
+			}
+		}
+		if (Metrics.ENABLED) Metrics.evaluated(best);
+		return best;
+	}
+	
+	private static long lowAce(long values) {
+		return values | values >>> (ACE_INDEX - LOW_ACE_INDEX);
+	}
+	
+	private static long top(long ranks, int count) {
+		for (int surplus = Long.bitCount(ranks) - count; surplus > 0; surplus--) ranks &= ranks - 1;
+		return ranks;
+	}
+	
+	private static long straight(long hole, long values, long starts) {
+		hole = lowAce(hole);
+		for (long start; starts != 0; starts ^= start) {
+			start = Long.highestOneBit(starts);
+			final long pattern = WHEEL_PATTERN * start;
+			if (Long.bitCount(pattern & hole) == HOLE_CARDS_USED && (pattern & ~(hole | values)) == 0) return pattern;
+		}
+		return 0L;
+	}
+	
+	private static long flush(long hole, long lane) {
+		final long sf = straight(hole, lowAce(lane), ALL_STRAIGHTS);
+		if (sf != 0) return SF_MASK | sf;
+		return FLUSH_MASK | hole | top(lane, BOARD_CARDS_USED);
+	}
+	
+	private static long twoPair(long pair, long other) {
+		return TWO_PAIR_MASK | Math.max(pair, other) << MSP_INDEX | Math.min(pair, other) << LSP_INDEX;
+	}
+	
+	private static long pocketPair(long pair, long ones, long twos, long threes) {
+		if ((twos & pair) != 0) return QUAD_MASK | pair << MSP_INDEX | Long.highestOneBit(ones & ~pair);
+		if ((ones & pair) != 0) {
+			final long under = Long.highestOneBit(twos & ~pair);
+			long boat = under == 0 ? 0L : BOAT_MASK | pair << MSP_INDEX | under << LSP_INDEX;
+			if (threes != 0) boat = Math.max(boat, BOAT_MASK | threes << MSP_INDEX | pair << LSP_INDEX);
+			if (boat != 0) return boat;
+			return TRIP_MASK | pair << MSP_INDEX | top(ones & ~pair, 2);
+		}
+		if (threes != 0) return BOAT_MASK | threes << MSP_INDEX | pair << LSP_INDEX;
+		if (twos != 0) {
+			final long other = Long.highestOneBit(twos);
+			return twoPair(pair, other) | Long.highestOneBit(ones & ~other);
+		}
+		return pair << MSP_INDEX | top(ones, 3);
+	}
+	
+	private static long unpaired(long a, long b, long ones, long twos, long threes) {
+		if ((threes & a) != 0) return QUAD_MASK | a << MSP_INDEX | b;
+		if ((threes & b) != 0) return QUAD_MASK | b << MSP_INDEX | a;
+		if ((twos & a) != 0 && (ones & b) != 0) return BOAT_MASK | a << MSP_INDEX | b << LSP_INDEX;
+		if ((twos & b) != 0 && (ones & a) != 0) return BOAT_MASK | b << MSP_INDEX | a << LSP_INDEX;
+		long best = 0L;
+		if ((twos & a) != 0) best = TRIP_MASK | a << MSP_INDEX | b | Long.highestOneBit(ones & ~a);
+		if ((twos & b) != 0) best = Math.max(best, TRIP_MASK | b << MSP_INDEX | a | Long.highestOneBit(ones & ~b));
+		if (threes != 0) best = Math.max(best, TRIP_MASK | threes << MSP_INDEX | a | b);
+		if (best != 0) return best;
+		final long pair = Long.highestOneBit(twos);
+		if ((ones & a) != 0 && (ones & b) != 0) best = twoPair(a, b) | Long.highestOneBit(ones & ~(a | b));
+		if ((ones & a) != 0 && pair != 0) best = Math.max(best, twoPair(a, pair) | b);
+		if ((ones & b) != 0 && pair != 0) best = Math.max(best, twoPair(b, pair) | a);
+		if (best != 0) return best;
+		if ((ones & a) != 0) best = a << MSP_INDEX | b | top(ones & ~a, 2);
+		if ((ones & b) != 0) best = Math.max(best, b << MSP_INDEX | a | top(ones & ~b, 2));
+		if (pair != 0) best = Math.max(best, pair << MSP_INDEX | a | b | Long.highestOneBit(ones & ~pair));
+		if (best != 0) return best;
+		return a | b | top(ones, 3);
+	}
+}
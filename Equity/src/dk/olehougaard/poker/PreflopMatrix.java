@@ -0,0 +1,275 @@
+package dk.olehougaard.poker;
+
+import static dk.olehougaard.poker.Hand.BITS_PER_SUIT;
+import static dk.olehougaard.poker.Hand.DEUCE_INDEX;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class PreflopMatrix {
+	public static final int MAGIC = 0x45515046;
+	public static final int VERSION = 1;
+	public static final int CLASSES = HandIndex.RANKS * HandIndex.RANKS;
+	public static final int COMBOS = Range.COMBOS;
+	public static final int CHECKPOINT_INTERVAL = 1 << 10;
+	
+	private static final int CHECKPOINT_MAGIC = 0x45515043;
+	private static final int HEADER_BYTES = 4 * Integer.BYTES;
+	private static final int SEQUENTIAL_THRESHOLD = 4;
+	private static final double SCALE = BitUtils.SHORT_MASK;
+	private static final String RANK_CHARS = "23456789TJQKA";
+	
+	public interface Equity {
+		EquityResult headsUp(long hero, long villain);
+	}
+	
+	private final ShortBuffer classes;
+	private final ShortBuffer combos;
+	
+	private PreflopMatrix(ShortBuffer classes, ShortBuffer combos) {
+		this.classes = classes;
+		this.combos = combos;
+	}
+	
+	public double equity(long hero, long villain) {
+		ExhaustiveEquity.checkHoleCards(hero);
+		ExhaustiveEquity.checkHoleCards(villain);
+		ExhaustiveEquity.checkDisjoint(hero, villain);
+		return fraction(combos.get(HandIndex.index(hero) * COMBOS + HandIndex.index(villain)));
+	}
+	
+	public double classEquity(int hero, int villain) {
+		checkClass(hero);
+		checkClass(villain);
+		return fraction(classes.get(hero * CLASSES + villain));
+	}
+	
+	public double classEquity(String hero, String villain) {
+		return classEquity(handClass(hero), handClass(villain));
+	}
+	
+	public static int handClass(long holeCards) {
+		ExhaustiveEquity.checkHoleCards(holeCards);
+		final int low = Long.numberOfTrailingZeros(holeCards);
+		final int high = Long.SIZE - 1 - Long.numberOfLeadingZeros(holeCards);
+		final int lowRank = low % BITS_PER_SUIT - DEUCE_INDEX;
+		final int highRank = high % BITS_PER_SUIT - DEUCE_INDEX;
+		final int top = Math.max(lowRank, highRank), bottom = Math.min(lowRank, highRank);
+		if (low / BITS_PER_SUIT == high / BITS_PER_SUIT) return top * HandIndex.RANKS + bottom;
+		return bottom * HandIndex.RANKS + top;
+	}
+	
+	public static int handClass(String description) {
+		final int first = RANK_CHARS.indexOf(Character.toUpperCase(description.charAt(0)));
+		final int second = description.length() > 1 ? RANK_CHARS.indexOf(Character.toUpperCase(description.charAt(1))) : -1;
+		if (first < 0 || second < 0 || description.length() > 3) throw new IllegalArgumentException("Not a hand class: " + description);
+		final int top = Math.max(first, second), bottom = Math.min(first, second);
+		if (top == bottom) {
+			if (description.length() != 2) throw new IllegalArgumentException("Not a hand class: " + description);
+			return top * HandIndex.RANKS + bottom;
+		}
+		if (description.length() != 3) throw new IllegalArgumentException("Not a hand class: " + description);
+		switch (Character.toLowerCase(description.charAt(2))) {
+		case 's': return top * HandIndex.RANKS + bottom;
+		case 'o': return bottom * HandIndex.RANKS + top;
+		default: throw new IllegalArgumentException("Not a hand class: " + description);
+		}
+	}
+	
+	public static String className(int handClass) {
+		checkClass(handClass);
+		final int row = handClass / HandIndex.RANKS, column = handClass % HandIndex.RANKS;
+		if (row == column) return "" + RANK_CHARS.charAt(row) + RANK_CHARS.charAt(column);
+		if (row > column) return "" + RANK_CHARS.charAt(row) + RANK_CHARS.charAt(column) + 's';
+		return "" + RANK_CHARS.charAt(column) + RANK_CHARS.charAt(row) + 'o';
+	}
+	
+	private static void checkClass(int handClass) {
+		if (handClass < 0 || handClass >= CLASSES) throw new IllegalArgumentException("Not a hand class: " + handClass);
+	}
+	
+	private static double fraction(short value) {
+		return (value & BitUtils.SHORT_MASK) / SCALE;
+	}
+	
+	private static short fixed(double equity) {
+		return (short) Math.round(equity * SCALE);
+	}
+	
+	public static Path checkpoint(Path file) {
+		return file.resolveSibling(file.getFileName() + ".checkpoint");
+	}
+	
+	public static void build(Path file) throws IOException {
+		build(file, checkpoint(file), ExhaustiveEquity::headsUp);
+	}
+	
+	public static void build(Path file, Path checkpoint, Equity equity) throws IOException {
+		build(file, checkpoint, equity, CHECKPOINT_INTERVAL);
+	}
+	
+	static void build(Path file, Path checkpoint, Equity equity, int interval) throws IOException {
+		if (interval <= 0) throw new IllegalArgumentException("Not a checkpoint interval: " + interval);
+		final int[] matchups = matchups();
+		final double[] equities = new double[matchups.length];
+		int done = resume(checkpoint, equities);
+		while (done < matchups.length) {
+			final int to = Math.min(done + interval, matchups.length);
+			ForkJoinPool.commonPool().invoke(new MatchupTask(equity, matchups, equities, done, to));
+			done = to;
+			save(checkpoint, equities, done);
+		}
+		write(file, matchups, equities);
+		Files.deleteIfExists(checkpoint);
+	}
+	
+	static int matchupCount() {
+		return matchups().length;
+	}
+	
+	private static int canonical(long hero, long villain) {
+		final long[] hands = { hero, villain };
+		SuitIsomorphism.canonicalize(hands);
+		return HandIndex.index(hands[0]) * COMBOS + HandIndex.index(hands[1]);
+	}
+	
+	private static int[] matchups() {
+		final int[] matchups = new int[COMBOS * (COMBOS - 1) / 2];
+		int count = 0;
+		for (int hero = 0; hero < COMBOS; hero++) {
+			final long heroCards = HandIndex.hand(hero, ExhaustiveEquity.HOLE_CARDS);
+			for (int villain = hero + 1; villain < COMBOS; villain++) {
+				final long villainCards = HandIndex.hand(villain, ExhaustiveEquity.HOLE_CARDS);
+				if ((heroCards & villainCards) != 0) continue;
+				// One evaluation per suit isomorphism class and seat order.
+				matchups[count++] = Math.min(canonical(heroCards, villainCards), canonical(villainCards, heroCards));
+			}
+		}
+		return Arrays.stream(matchups, 0, count).sorted().distinct().toArray();
+	}
+	
+	private static int resume(Path checkpoint, double[] equities) throws IOException {
+		if (!Files.exists(checkpoint)) return 0;
+		final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(checkpoint));
+		if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != CHECKPOINT_MAGIC || buffer.getInt() != VERSION || buffer.getInt() != equities.length)
+			throw new IOException("Not a preflop matrix checkpoint: " + checkpoint);
+		final int done = buffer.getInt();
+		if (done < 0 || done > equities.length || buffer.remaining() != equities.length * Double.BYTES) throw new IOException("Corrupt checkpoint: " + checkpoint);
+		for (int i = 0; i < done; i++) equities[i] = buffer.getDouble();
+		return done;
+	}
+	
+	private static void save(Path checkpoint, double[] equities, int done) throws IOException {
+		final ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + equities.length * Double.BYTES);
+		buffer.putInt(CHECKPOINT_MAGIC).putInt(VERSION).putInt(equities.length).putInt(done);
+		for (double equity : equities) buffer.putDouble(equity);
+		final Path temporary = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+		Files.write(temporary, buffer.array());
+		Files.move(temporary, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+	
+	private static void write(Path file, int[] matchups, double[] equities) throws IOException {
+		final double[] classSums = new double[CLASSES * CLASSES];
+		final int[] classCounts = new int[CLASSES * CLASSES];
+		final long size = HEADER_BYTES + (long) (CLASSES * CLASSES + COMBOS * COMBOS) * Short.BYTES;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			final MappedByteBuffer buffer = channel.map(MapMode.READ_WRITE, 0, size);
+			buffer.putInt(MAGIC).putInt(VERSION).putInt(CLASSES).putInt(COMBOS);
+			final ShortBuffer classes = buffer.slice().asShortBuffer();
+			buffer.position(HEADER_BYTES + CLASSES * CLASSES * Short.BYTES);
+			final ShortBuffer combos = buffer.slice().asShortBuffer();
+			for (int hero = 0; hero < COMBOS; hero++) {
+				final long heroCards = HandIndex.hand(hero, ExhaustiveEquity.HOLE_CARDS);
+				final int heroClass = handClass(heroCards);
+				for (int villain = 0; villain < COMBOS; villain++) {
+					final long villainCards = HandIndex.hand(villain, ExhaustiveEquity.HOLE_CARDS);
+					if ((heroCards & villainCards) != 0) continue;
+					final int forward = canonical(heroCards, villainCards), backward = canonical(villainCards, heroCards);
+					final double equity = forward <= backward
+							? equities[Arrays.binarySearch(matchups, forward)]
+							: 1.0 - equities[Arrays.binarySearch(matchups, backward)];
+					combos.put(hero * COMBOS + villain, fixed(equity));
+					final int cell = heroClass * CLASSES + handClass(villainCards);
+					classSums[cell] += equity;
+					classCounts[cell]++;
+				}
+			}
+			for (int cell = 0; cell < classSums.length; cell++) classes.put(cell, fixed(classSums[cell] / classCounts[cell]));
+			buffer.force();
+		}
+	}
+	
+	public static PreflopMatrix load(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			final MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+			if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) throw new IOException("Not a preflop matrix: " + file);
+			final int version = buffer.getInt();
+			if (version != VERSION) throw new IOException("Unsupported preflop matrix version " + version + ": " + file);
+			if (buffer.getInt() != CLASSES || buffer.getInt() != COMBOS) throw new IOException("Bad preflop matrix dimensions: " + file);
+			if (buffer.remaining() != (CLASSES * CLASSES + COMBOS * COMBOS) * Short.BYTES) throw new IOException("Truncated preflop matrix: " + file);
+			final ShortBuffer classes = buffer.slice().asShortBuffer();
+			buffer.position(HEADER_BYTES + CLASSES * CLASSES * Short.BYTES);
+			final ShortBuffer combos = buffer.slice().asShortBuffer();
+			return new PreflopMatrix(classes, combos);
+		}
+	}
+	
+	private static class MatchupTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		
+		private final Equity equity;
+		private final int[] matchups;
+		private final double[] equities;
+		private final int from;
+		private final int to;
+		
+		MatchupTask(Equity equity, int[] matchups, double[] equities, int from, int to) {
+			this.equity = equity;
+			this.matchups = matchups;
+			this.equities = equities;
+			this.from = from;
+			this.to = to;
+		}
+		
+		@Override
+		protected void compute() {
+			if (to - from > SEQUENTIAL_THRESHOLD) {
+				final int middle = (from + to) >>> 1;
+				invokeAll(new MatchupTask(equity, matchups, equities, from, middle), new MatchupTask(equity, matchups, equities, middle, to));
+				return;
+			}
+			for (int i = from; i < to; i++) {
+				final long hero = HandIndex.hand(matchups[i] / COMBOS, ExhaustiveEquity.HOLE_CARDS);
+				final long villain = HandIndex.hand(matchups[i] % COMBOS, ExhaustiveEquity.HOLE_CARDS);
+				equities[i] = equity.headsUp(hero, villain).getEquity();
+			}
+		}
+	}
+	
+	public static void main(String[] args) throws IOException {
+		if (args.length < 1) {
+			System.err.println("Usage: PreflopMatrix <file>");
+			System.exit(1);
+		}
+		final Path file = Paths.get(args[0]);
+		if (Files.exists(checkpoint(file))) System.out.println("Resuming from " + checkpoint(file));
+		final long start = System.nanoTime();
+		build(file);
+		System.out.printf("Built preflop matrix of %d matchups in %.1f s%n", matchupCount(), (System.nanoTime() - start) / 1e9);
+		final PreflopMatrix matrix = load(file);
+		final String[][] examples = { { "AA", "KK" }, { "AKs", "QQ" }, { "AKo", "22" }, { "72o", "AA" } };
+		for (String[] example : examples) System.out.printf("%s vs %s: %.4f%n", example[0], example[1], matrix.classEquity(example[0], example[1]));
+	}
+}
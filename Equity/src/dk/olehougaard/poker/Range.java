@@ -0,0 +1,138 @@
+package dk.olehougaard.poker;
+
+import static dk.olehougaard.poker.Hand.BITS_PER_SUIT;
+import static dk.olehougaard.poker.Hand.DEUCE_INDEX;
+
+import java.util.Arrays;
+
+public class Range {
+	public static final int COMBOS = 1326;
+	
+	private static final String RANKS = "23456789TJQKA";
+	private static final int SUITS = 4;
+	private static final int ANY = 0, SUITED = 1, OFFSUIT = 2;
+	
+	final double[] weights = new double[COMBOS];
+	
+	public static Range all() {
+		Range range = new Range();
+		Arrays.fill(range.weights, 1.0);
+		return range;
+	}
+	
+	public static Range of(long... holeCards) {
+		Range range = new Range();
+		for (long hole : holeCards) range.set(hole, 1.0);
+		return range;
+	}
+	
+	public static Range parse(String description) {
+		Range range = new Range();
+		for (String token : description.split(",")) {
+			token = token.trim();
+			if (token.isEmpty()) continue;
+			double weight = 1.0;
+			final int colon = token.indexOf(':');
+			if (colon >= 0) {
+				try {
+					weight = Double.parseDouble(token.substring(colon + 1).trim());
+				} catch (NumberFormatException e) {
+					throw new IllegalArgumentException("Not a range weight: " + token);
+				}
+				if (!(weight >= 0)) throw new IllegalArgumentException("Not a range weight: " + token);
+				token = token.substring(0, colon).trim();
+			}
+			range.add(token, weight);
+		}
+		return range;
+	}
+	
+	public double weight(long holeCards) {
+		return weights[HandIndex.index(holeCards)];
+	}
+	
+	public double weight(int index) {
+		return weights[index];
+	}
+	
+	public void set(long holeCards, double weight) {
+		ExhaustiveEquity.checkHoleCards(holeCards);
+		weights[HandIndex.index(holeCards)] = weight;
+	}
+	
+	public int size() {
+		int size = 0;
+		for (double weight : weights) {
+			if (weight > 0) size++;
+		}
+		return size;
+	}
+	
+	public double[] getWeights() {
+		return weights.clone();
+	}
+	
+	private void add(String token, double weight) {
+		if (token.length() == 4 && Character.isLetter(token.charAt(1)) && Character.isLetter(token.charAt(3))) {
+			set(Hand.createHand(token.substring(0, 2), token.substring(2)), weight);
+			return;
+		}
+		final int dash = token.indexOf('-');
+		if (dash >= 0) {
+			final String low = token.substring(0, dash).trim();
+			final String high = token.substring(dash + 1).trim();
+			final int[] first = parseClass(low, token);
+			final int[] last = parseClass(high, token);
+			if (first[2] != last[2]) throw new IllegalArgumentException("Not a range: " + token);
+			if (first[0] == first[1]) {
+				if (last[0] != last[1]) throw new IllegalArgumentException("Not a range: " + token);
+				for (int rank = Math.min(first[0], last[0]); rank <= Math.max(first[0], last[0]); rank++) addClass(rank, rank, first[2], weight);
+			} else {
+				if (first[0] != last[0] || last[0] == last[1]) throw new IllegalArgumentException("Not a range: " + token);
+				for (int kicker = Math.min(first[1], last[1]); kicker <= Math.max(first[1], last[1]); kicker++) addClass(first[0], kicker, first[2], weight);
+			}
+		} else if (token.endsWith("+")) {
+			final int[] handClass = parseClass(token.substring(0, token.length() - 1), token);
+			if (handClass[0] == handClass[1]) {
+				for (int rank = handClass[0]; rank < RANKS.length(); rank++) addClass(rank, rank, handClass[2], weight);
+			} else {
+				for (int kicker = handClass[1]; kicker < handClass[0]; kicker++) addClass(handClass[0], kicker, handClass[2], weight);
+			}
+		} else {
+			final int[] handClass = parseClass(token, token);
+			addClass(handClass[0], handClass[1], handClass[2], weight);
+		}
+	}
+	
+	private static int[] parseClass(String handClass, String token) {
+		if (handClass.length() < 2 || handClass.length() > 3) throw new IllegalArgumentException("Not a range: " + token);
+		final int first = RANKS.indexOf(Character.toUpperCase(handClass.charAt(0)));
+		final int second = RANKS.indexOf(Character.toUpperCase(handClass.charAt(1)));
+		if (first < 0 || second < 0) throw new IllegalArgumentException("Not a range: " + token);
+		int suitedness = ANY;
+		if (handClass.length() == 3) {
+			switch (Character.toLowerCase(handClass.charAt(2))) {
+			case 's': suitedness = SUITED; break;
+			case 'o': suitedness = OFFSUIT; break;
+			default: throw new IllegalArgumentException("Not a range: " + token);
+			}
+			if (first == second) throw new IllegalArgumentException("Not a range: " + token);
+		}
+		return new int[] { Math.max(first, second), Math.min(first, second), suitedness };
+	}
+	
+	private void addClass(int high, int low, int suitedness, double weight) {
+		for (int highSuit = 0; highSuit < SUITS; highSuit++) {
+			for (int lowSuit = 0; lowSuit < SUITS; lowSuit++) {
+				if (high == low && lowSuit <= highSuit) continue;
+				if (suitedness == SUITED && lowSuit != highSuit) continue;
+				if (suitedness == OFFSUIT && lowSuit == highSuit) continue;
+				weights[HandIndex.index(card(high, highSuit) | card(low, lowSuit))] = weight;
+			}
+		}
+	}
+	
+	private static long card(int rank, int suit) {
+		return 1L << (suit * BITS_PER_SUIT + rank + DEUCE_INDEX);
+	}
+}
@@ -0,0 +1,158 @@
+package dk.olehougaard.poker;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+public class RangeEquity {
+	private static final long SEQUENTIAL_THRESHOLD = 1 << 6;
+	private static final int INDEX_BITS = 11;
+	private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+	
+	public static RangeEquityResult equity(Range hero, Range villain, long board) {
+		return equity(hero, villain, board, 0L);
+	}
+	
+	public static RangeEquityResult equity(Range hero, Range villain, long board, long dead) {
+		final long start = Metrics.ENABLED ? System.nanoTime() : 0L;
+		ExhaustiveEquity.checkBoard(board);
+		ExhaustiveEquity.checkDisjoint(board, dead);
+		final long blocked = board | dead;
+		final Combos combos = new Combos(hero, villain, blocked);
+		if (combos.heroCombos == 0 || combos.villainCombos == 0) throw new IllegalArgumentException("A range is empty after card removal");
+		final long live = Hand.HAND_MASK & ~blocked;
+		final int missing = ExhaustiveEquity.BOARD_SIZE - Long.bitCount(board);
+		final long boards = Combinations.binomial(Long.bitCount(live), missing);
+		final RangeEquityResult result = ForkJoinPool.commonPool().invoke(new BoardTask(combos, board, live, missing, 0, boards));
+		if (Metrics.ENABLED) Metrics.job("range", boards, start);
+		return result;
+	}
+	
+	private static class Combos {
+		final long[] hands;
+		final int[] first;
+		final int[] second;
+		final double[] heroWeights;
+		final double[] villainWeights;
+		final int heroCombos;
+		final int villainCombos;
+		
+		Combos(Range hero, Range villain, long blocked) {
+			int distinct = 0, heroes = 0, villains = 0;
+			for (int index = 0; index < Range.COMBOS; index++) {
+				if ((HandIndex.hand(index, 2) & blocked) != 0) continue;
+				if (hero.weights[index] > 0) heroes++;
+				if (villain.weights[index] > 0) villains++;
+				if (hero.weights[index] > 0 || villain.weights[index] > 0) distinct++;
+			}
+			hands = new long[distinct];
+			first = new int[distinct];
+			second = new int[distinct];
+			heroWeights = new double[distinct];
+			villainWeights = new double[distinct];
+			heroCombos = heroes;
+			villainCombos = villains;
+			distinct = 0;
+			for (int index = 0; index < Range.COMBOS; index++) {
+				final long hand = HandIndex.hand(index, 2);
+				if ((hand & blocked) != 0 || (hero.weights[index] <= 0 && villain.weights[index] <= 0)) continue;
+				hands[distinct] = hand;
+				first[distinct] = HandIndex.cardNumber(hand);
+				second[distinct] = HandIndex.cardNumber(hand & hand - 1);
+				heroWeights[distinct] = Math.max(hero.weights[index], 0.0);
+				villainWeights[distinct++] = Math.max(villain.weights[index], 0.0);
+			}
+		}
+	}
+	
+	private static class BoardTask extends RecursiveTask<RangeEquityResult> {
+		private static final long serialVersionUID = 1L;
+		
+		private final Combos combos;
+		private final long board;
+		private final long live;
+		private final int missing;
+		private final long from;
+		private final long to;
+		
+		BoardTask(Combos combos, long board, long live, int missing, long from, long to) {
+			this.combos = combos;
+			this.board = board;
+			this.live = live;
+			this.missing = missing;
+			this.from = from;
+			this.to = to;
+		}
+		
+		@Override
+		protected RangeEquityResult compute() {
+			if (to - from <= SEQUENTIAL_THRESHOLD) return enumerate();
+			final long middle = (from + to) >>> 1;
+			final BoardTask high = new BoardTask(combos, board, live, missing, middle, to);
+			high.fork();
+			final RangeEquityResult low = new BoardTask(combos, board, live, missing, from, middle).compute();
+			return low.add(high.join());
+		}
+		
+		private RangeEquityResult enumerate() {
+			final long[] hands = combos.hands;
+			final double[] heroWeights = combos.heroWeights;
+			final double[] villainWeights = combos.villainWeights;
+			final long[] keys = new long[hands.length];
+			final double[] cardTotals = new double[HandIndex.CARDS_IN_DECK];
+			final double[] belowCards = new double[HandIndex.CARDS_IN_DECK];
+			final double[] tiedCards = new double[HandIndex.CARDS_IN_DECK];
+			BoardContext context = null;
+			double wins = 0, ties = 0, losses = 0;
+			long cards = Combinations.unrankSubset(from, live, missing);
+			for (long i = from; i < to; i++) {
+				final long runout = board | cards;
+				if (context == null) context = new BoardContext(runout);
+				else context.setBoard(runout);
+				Arrays.fill(cardTotals, 0.0);
+				double total = 0;
+				int count = 0;
+				for (int hand = 0; hand < hands.length; hand++) {
+					if ((hands[hand] & runout) != 0) continue;
+					keys[count++] = context.evaluate(hands[hand]) << INDEX_BITS | hand;
+					total += villainWeights[hand];
+					cardTotals[combos.first[hand]] += villainWeights[hand];
+					cardTotals[combos.second[hand]] += villainWeights[hand];
+				}
+				Arrays.sort(keys, 0, count);
+				Arrays.fill(belowCards, 0.0);
+				double below = 0;
+				for (int group = 0, end; group < count; group = end) {
+					double tied = 0;
+					for (end = group; end < count && keys[end] >>> INDEX_BITS == keys[group] >>> INDEX_BITS; end++) {
+						final int hand = (int) (keys[end] & INDEX_MASK);
+						tied += villainWeights[hand];
+						tiedCards[combos.first[hand]] += villainWeights[hand];
+						tiedCards[combos.second[hand]] += villainWeights[hand];
+					}
+					for (int k = group; k < end; k++) {
+						final int hand = (int) (keys[k] & INDEX_MASK);
+						if (heroWeights[hand] == 0) continue;
+						final int first = combos.first[hand], second = combos.second[hand];
+						final double win = below - belowCards[first] - belowCards[second];
+						final double tie = tied - tiedCards[first] - tiedCards[second] + villainWeights[hand];
+						final double all = total - cardTotals[first] - cardTotals[second] + villainWeights[hand];
+						wins += heroWeights[hand] * win;
+						ties += heroWeights[hand] * tie;
+						losses += heroWeights[hand] * (all - win - tie);
+					}
+					for (int k = group; k < end; k++) {
+						final int hand = (int) (keys[k] & INDEX_MASK);
+						belowCards[combos.first[hand]] += villainWeights[hand];
+						belowCards[combos.second[hand]] += villainWeights[hand];
+						tiedCards[combos.first[hand]] = 0.0;
+						tiedCards[combos.second[hand]] = 0.0;
+					}
+					below += tied;
+				}
+				cards = Combinations.nextSubset(cards, live);
+			}
+			return new RangeEquityResult(wins, ties, losses);
+		}
+	}
+}
@@ -0,0 +1,42 @@
+package dk.olehougaard.poker;
+
+public class RangeEquityResult {
+	private final double wins;
+	private final double ties;
+	private final double losses;
+
+	public RangeEquityResult(double wins, double ties, double losses) {
+		this.wins = wins;
+		this.ties = ties;
+		this.losses = losses;
+	}
+
+	public double getWins() {
+		return wins;
+	}
+
+	public double getTies() {
+		return ties;
+	}
+
+	public double getLosses() {
+		return losses;
+	}
+	
+	public double getTotal() {
+		return wins + ties + losses;
+	}
+	
+	public double getEquity() {
+		return (wins + ties / 2.0) / getTotal();
+	}
+	
+	public RangeEquityResult add(RangeEquityResult other) {
+		return new RangeEquityResult(wins + other.wins, ties + other.ties, losses + other.losses);
+	}
+
+	@Override
+	public String toString() {
+		return "RangeEquityResult [wins=" + wins + ", ties=" + ties + ", losses=" + losses + ", equity=" + getEquity() + "]";
+	}
+}
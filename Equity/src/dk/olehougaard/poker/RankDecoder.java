@@ -0,0 +1,81 @@
+package dk.olehougaard.poker;
+
+import static dk.olehougaard.poker.Evaluator.LSP_INDEX;
+import static dk.olehougaard.poker.Evaluator.LSP_MASK;
+import static dk.olehougaard.poker.Evaluator.MSP_INDEX;
+import static dk.olehougaard.poker.Evaluator.MSP_MASK;
+import static dk.olehougaard.poker.Evaluator.UNPAIRED_MASK;
+
+public class RankDecoder {
+	public static final int NONE = -1;
+	public static final int MAX_KICKERS = 5;
+	
+	private static final String RANKS = "A23456789TJQKA";
+	private static final String[] NAMES = { "High card", "Pair", "Two pair", "Trips", "Straight", "Flush", "Full house", "Quads", "Straight flush" };
+	private static final int HIGH_CARD = HandCategory.HIGH_CARD.ordinal();
+	private static final int TWO_PAIR = HandCategory.TWO_PAIR.ordinal();
+	private static final int STRAIGHT = HandCategory.STRAIGHT.ordinal();
+	private static final int FLUSH = HandCategory.FLUSH.ordinal();
+	private static final int BOAT = HandCategory.BOAT.ordinal();
+	private static final int STRAIGHT_FLUSH = HandCategory.STRAIGHT_FLUSH.ordinal();
+	
+	public static int category(long rank) {
+		return HandCategory.ordinalOf(rank);
+	}
+	
+	private static int highest(long bits) {
+		return BitUtils.indexOfBit((short) Long.highestOneBit(bits));
+	}
+	
+	private static boolean byCards(int category) {
+		return category == HIGH_CARD || category == FLUSH || category == STRAIGHT || category == STRAIGHT_FLUSH;
+	}
+	
+	public static int primary(long rank) {
+		if (byCards(category(rank))) return highest(rank & UNPAIRED_MASK);
+		return highest((rank & MSP_MASK) >>> MSP_INDEX);
+	}
+	
+	public static int secondary(long rank) {
+		final int category = category(rank);
+		if (category != TWO_PAIR && category != BOAT) return NONE;
+		return highest((rank & LSP_MASK) >>> LSP_INDEX);
+	}
+	
+	public static int kickers(long rank) {
+		final int category = category(rank);
+		if (category == STRAIGHT || category == STRAIGHT_FLUSH) return 0;
+		final long unpaired = rank & UNPAIRED_MASK;
+		if (category == HIGH_CARD || category == FLUSH) return (int) (unpaired ^ Long.highestOneBit(unpaired));
+		return (int) unpaired;
+	}
+	
+	public static int kickers(long rank, int[] into) {
+		int count = 0;
+		for (int kickers = kickers(rank); kickers != 0; kickers ^= Integer.highestOneBit(kickers)) {
+			into[count++] = highest(kickers);
+		}
+		return count;
+	}
+	
+	public static char rankChar(int index) {
+		return RANKS.charAt(index);
+	}
+	
+	public static StringBuilder append(StringBuilder builder, long rank) {
+		final int category = category(rank);
+		builder.append(NAMES[category]).append(' ').append(rankChar(primary(rank)));
+		final int secondary = secondary(rank);
+		if (secondary != NONE) builder.append(category == BOAT ? " over " : " and ").append(rankChar(secondary));
+		int kickers = kickers(rank);
+		if (kickers != 0) {
+			builder.append(',');
+			for (; kickers != 0; kickers ^= Integer.highestOneBit(kickers)) builder.append(' ').append(rankChar(highest(kickers)));
+		}
+		return builder;
+	}
+	
+	public static String toString(long rank) {
+		return append(new StringBuilder(), rank).toString();
+	}
+}
@@ -0,0 +1,185 @@
+package dk.olehougaard.poker;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+public class RankTable implements HandEvaluator {
+	public static final int MAGIC = 0x45515254;
+	public static final int VERSION = 1;
+	public static final int MIN_CARDS = 5;
+	public static final int MAX_CARDS = 7;
+	
+	private static final int HEADER_BYTES = 4 * Integer.BYTES;
+	private static final long SEQUENTIAL_THRESHOLD = 1 << 16;
+	
+	private final int cards;
+	private final long[] ranks;
+	private final ShortBuffer ordinals;
+	
+	private RankTable(int cards, long[] ranks, ShortBuffer ordinals) {
+		this.cards = cards;
+		this.ranks = ranks;
+		this.ordinals = ordinals;
+	}
+	
+	public int getCards() {
+		return cards;
+	}
+	
+	public int getDistinctRanks() {
+		return ranks.length;
+	}
+	
+	public int ordinal(long hand) {
+		if (Long.bitCount(hand) != cards) throw new IllegalArgumentException("Not a hand of " + cards + " cards: " + Long.toHexString(hand));
+		return ordinals.get(HandIndex.index(hand)) & BitUtils.SHORT_MASK;
+	}
+	
+	public long rank(long hand) {
+		return ranks[ordinal(hand)];
+	}
+	
+	@Override
+	public long evaluate(long hand) {
+		return rank(hand);
+	}
+	
+	public long rankOf(int ordinal) {
+		return ranks[ordinal];
+	}
+	
+	public long verify() {
+		return ForkJoinPool.commonPool().invoke(new VerifyTask(this, 0, HandIndex.size(cards)));
+	}
+	
+	public static long[] distinctRanks() {
+		final long[] ranks = new long[HandIndex.size(MIN_CARDS)];
+		long hand = Combinations.lowest(Hand.HAND_MASK, MIN_CARDS);
+		int i = 0;
+		do {
+			ranks[i++] = Evaluator.evaluate(hand);
+		} while ((hand = Combinations.nextSubset(hand, Hand.HAND_MASK)) != 0);
+		return Arrays.stream(ranks).sorted().distinct().toArray();
+	}
+	
+	public static void build(Path file, int cards) throws IOException {
+		if (cards < MIN_CARDS || cards > MAX_CARDS) throw new IllegalArgumentException("Not a hand size between " + MIN_CARDS + " and " + MAX_CARDS + ": " + cards);
+		final long[] ranks = distinctRanks();
+		final int hands = HandIndex.size(cards);
+		final long size = HEADER_BYTES + (long) ranks.length * Long.BYTES + (long) hands * Short.BYTES;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			final MappedByteBuffer buffer = channel.map(MapMode.READ_WRITE, 0, size);
+			buffer.putInt(MAGIC).putInt(VERSION).putInt(cards).putInt(ranks.length);
+			for (long rank : ranks) buffer.putLong(rank);
+			final ShortBuffer ordinals = buffer.slice().asShortBuffer();
+			ForkJoinPool.commonPool().invoke(new BuildTask(ordinals, ranks, cards, 0, hands));
+			buffer.force();
+		}
+	}
+	
+	public static RankTable load(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			final MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+			if (buffer.getInt() != MAGIC) throw new IOException("Not a rank table: " + file);
+			final int version = buffer.getInt();
+			if (version != VERSION) throw new IOException("Unsupported rank table version " + version + ": " + file);
+			final int cards = buffer.getInt();
+			if (cards < MIN_CARDS || cards > MAX_CARDS) throw new IOException("Bad hand size " + cards + ": " + file);
+			final long[] ranks = new long[buffer.getInt()];
+			for (int i = 0; i < ranks.length; i++) ranks[i] = buffer.getLong();
+			final ByteBuffer data = buffer.slice();
+			if (data.remaining() != (long) HandIndex.size(cards) * Short.BYTES) throw new IOException("Truncated rank table: " + file);
+			return new RankTable(cards, ranks, data.asShortBuffer());
+		}
+	}
+	
+	private static class BuildTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		
+		private final ShortBuffer ordinals;
+		private final long[] ranks;
+		private final int cards;
+		private final int from;
+		private final int to;
+		
+		BuildTask(ShortBuffer ordinals, long[] ranks, int cards, int from, int to) {
+			this.ordinals = ordinals;
+			this.ranks = ranks;
+			this.cards = cards;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > SEQUENTIAL_THRESHOLD) {
+				final int middle = (from + to) >>> 1;
+				invokeAll(new BuildTask(ordinals, ranks, cards, from, middle), new BuildTask(ordinals, ranks, cards, middle, to));
+				return;
+			}
+			long hand = Combinations.unrankSubset(from, Hand.HAND_MASK, cards);
+			for (int index = from; index < to; index++) {
+				ordinals.put(index, (short) Arrays.binarySearch(ranks, Evaluator.evaluate(hand)));
+				hand = Combinations.nextSubset(hand, Hand.HAND_MASK);
+			}
+		}
+	}
+	
+	private static class VerifyTask extends RecursiveTask<Long> {
+		private static final long serialVersionUID = 1L;
+		
+		private final RankTable table;
+		private final int from;
+		private final int to;
+		
+		VerifyTask(RankTable table, int from, int to) {
+			this.table = table;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected Long compute() {
+			if (to - from > SEQUENTIAL_THRESHOLD) {
+				final int middle = (from + to) >>> 1;
+				final VerifyTask high = new VerifyTask(table, middle, to);
+				high.fork();
+				return new VerifyTask(table, from, middle).compute() + high.join();
+			}
+			long hand = Combinations.unrankSubset(from, Hand.HAND_MASK, table.cards);
+			long mismatches = 0;
+			for (int index = from; index < to; index++) {
+				if (table.rank(hand) != Evaluator.evaluate(hand)) mismatches++;
+				hand = Combinations.nextSubset(hand, Hand.HAND_MASK);
+			}
+			return mismatches;
+		}
+	}
+	
+	public static void main(String[] args) throws IOException {
+		if (args.length < 1) {
+			System.err.println("Usage: RankTable <file> [cards]");
+			System.exit(1);
+		}
+		final Path file = Paths.get(args[0]);
+		final int cards = args.length > 1 ? Integer.parseInt(args[1]) : MAX_CARDS;
+		long start = System.nanoTime();
+		build(file, cards);
+		System.out.printf("Built %d-card rank table in %.1f s%n", cards, (System.nanoTime() - start) / 1e9);
+		start = System.nanoTime();
+		final long mismatches = load(file).verify();
+		System.out.printf("Verified against the evaluator in %.1f s: %d mismatches%n", (System.nanoTime() - start) / 1e9, mismatches);
+		if (mismatches != 0) System.exit(2);
+	}
+}
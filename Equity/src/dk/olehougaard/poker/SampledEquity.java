@@ -0,0 +1,48 @@
+package dk.olehougaard.poker;
+
+public class SampledEquity {
+	public static final double Z_95 = 1.959964;
+	
+	private final long samples;
+	private final double equity;
+	private final double standardError;
+
+	public SampledEquity(long samples, double equity, double standardError) {
+		this.samples = samples;
+		this.equity = equity;
+		this.standardError = standardError;
+	}
+
+	public long getSamples() {
+		return samples;
+	}
+
+	public double getEquity() {
+		return equity;
+	}
+
+	public double getStandardError() {
+		return standardError;
+	}
+	
+	public double getLowerBound() {
+		return getLowerBound(Z_95);
+	}
+	
+	public double getUpperBound() {
+		return getUpperBound(Z_95);
+	}
+	
+	public double getLowerBound(double z) {
+		return Math.max(0.0, equity - z * standardError);
+	}
+	
+	public double getUpperBound(double z) {
+		return Math.min(1.0, equity + z * standardError);
+	}
+
+	@Override
+	public String toString() {
+		return "SampledEquity [samples=" + samples + ", equity=" + equity + ", standardError=" + standardError + "]";
+	}
+}
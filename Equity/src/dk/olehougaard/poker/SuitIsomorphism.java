@@ -0,0 +1,54 @@
+package dk.olehougaard.poker;
+
+import static dk.olehougaard.poker.Hand.BITS_PER_SUIT;
+import static dk.olehougaard.poker.Hand.CLUB_MASK;
+
+public class SuitIsomorphism {
+	public static final int SUITS = 4;
+	public static final int PERMUTATIONS = 24;
+	
+	private static final int[] FACTORIAL = { 1, 1, 2, 6, 24 };
+	
+	private static long lane(long hand, int suit) {
+		return (hand >>> suit * BITS_PER_SUIT) & CLUB_MASK;
+	}
+	
+	private static int compare(long[] hands, int suit, int other) {
+		for (long hand : hands) {
+			final int comparison = Long.compare(lane(hand, suit), lane(hand, other));
+			if (comparison != 0) return comparison;
+		}
+		return 0;
+	}
+	
+	public static long canonicalize(long hand) {
+		long club = lane(hand, 0), diamond = lane(hand, 1), heart = lane(hand, 2), spade = lane(hand, 3);
+		long swap;
+		if (club < diamond) { swap = club; club = diamond; diamond = swap; }
+		if (heart < spade) { swap = heart; heart = spade; spade = swap; }
+		if (club < heart) { swap = club; club = heart; heart = swap; }
+		if (diamond < spade) { swap = diamond; diamond = spade; spade = swap; }
+		if (diamond < heart) { swap = diamond; diamond = heart; heart = swap; }
+		return club | diamond << BITS_PER_SUIT | heart << 2 * BITS_PER_SUIT | spade << 3 * BITS_PER_SUIT;
+	}
+	
+	public static int canonicalize(long[] hands) {
+		int s0 = 0, s1 = 1, s2 = 2, s3 = 3, swap;
+		if (compare(hands, s0, s1) < 0) { swap = s0; s0 = s1; s1 = swap; }
+		if (compare(hands, s2, s3) < 0) { swap = s2; s2 = s3; s3 = swap; }
+		if (compare(hands, s0, s2) < 0) { swap = s0; s0 = s2; s2 = swap; }
+		if (compare(hands, s1, s3) < 0) { swap = s1; s1 = s3; s3 = swap; }
+		if (compare(hands, s1, s2) < 0) { swap = s1; s1 = s2; s2 = swap; }
+		int stabilizer = 1;
+		int run = 1;
+		if (compare(hands, s0, s1) == 0) run++; else { stabilizer *= FACTORIAL[run]; run = 1; }
+		if (compare(hands, s1, s2) == 0) run++; else { stabilizer *= FACTORIAL[run]; run = 1; }
+		if (compare(hands, s2, s3) == 0) run++; else { stabilizer *= FACTORIAL[run]; run = 1; }
+		stabilizer *= FACTORIAL[run];
+		for (int i = 0; i < hands.length; i++) {
+			final long hand = hands[i];
+			hands[i] = lane(hand, s0) | lane(hand, s1) << BITS_PER_SUIT | lane(hand, s2) << 2 * BITS_PER_SUIT | lane(hand, s3) << 3 * BITS_PER_SUIT;
+		}
+		return PERMUTATIONS / stabilizer;
+	}
+}
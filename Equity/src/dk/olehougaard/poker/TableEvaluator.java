@@ -0,0 +1,77 @@
+package dk.olehougaard.poker;
+
+import static dk.olehougaard.poker.Evaluator.BROADWAY_PATTERN;
+import static dk.olehougaard.poker.Evaluator.FLUSH_MASK;
+import static dk.olehougaard.poker.Evaluator.QUAD_MASK;
+import static dk.olehougaard.poker.Evaluator.BOAT_MASK;
+import static dk.olehougaard.poker.Evaluator.SF_MASK;
+import static dk.olehougaard.poker.Evaluator.STRAIGHT_MASK;
+import static dk.olehougaard.poker.Evaluator.WHEEL_PATTERN;
+import static dk.olehougaard.poker.Hand.ACE_INDEX;
+import static dk.olehougaard.poker.Hand.BITS_PER_SUIT;
+import static dk.olehougaard.poker.Hand.DEUCE_INDEX;
+import static dk.olehougaard.poker.Hand.LOW_ACE_INDEX;
+
+public class TableEvaluator {
+	public static final int RANKS = ACE_INDEX - DEUCE_INDEX + 1;
+	public static final int TABLE_SIZE = 1 << RANKS;
+	
+	private static final int RANK_MASK = TABLE_SIZE - 1;
+	private static final short[] STRAIGHT = new short[TABLE_SIZE];
+	private static final short[] FLUSH = new short[TABLE_SIZE];
+	static {
+		for (int ranks = 0; ranks < TABLE_SIZE; ranks++) {
+			long cards = (long) ranks << DEUCE_INDEX;
+			long withLowAce = cards | ((cards >> (ACE_INDEX - LOW_ACE_INDEX)) & (1L << LOW_ACE_INDEX));
+			for (long pattern = BROADWAY_PATTERN; pattern >= WHEEL_PATTERN; pattern >>= 1) {
+				if ((pattern & withLowAce) == pattern) {
+					STRAIGHT[ranks] = (short) pattern;
+					break;
+				}
+			}
+			if (Long.bitCount(cards) >= 5) {
+				while (Long.bitCount(cards) > 5) cards &= cards - 1;
+				FLUSH[ranks] = (short) cards;
+			}
+		}
+	}
+	
+	static int rankIndex(long lane) {
+		return (int) (lane >>> DEUCE_INDEX) & RANK_MASK;
+	}
+	
+	static long straight(long lane) {
+		return STRAIGHT[rankIndex(lane)];
+	}
+	
+	static long flush(long lane) {
+		return FLUSH[rankIndex(lane)];
+	}
+	
+	private static long flushSuit(long hand) {
+		for (; hand != 0; hand >>>= BITS_PER_SUIT) {
+			if (FLUSH[rankIndex(hand)] != 0) return hand & Hand.CLUB_MASK;
+		}
+		return 0L;
+	}
+	
+	public static long evaluate(long hand) {
+		final long rank = evaluateStages(hand);
+		if (Metrics.ENABLED) Metrics.evaluated(rank);
+		return rank;
+	}
+	
+	private static long evaluateStages(long hand) {
+		final long suit = flushSuit(hand);
+		if (suit != 0) {
+			final long sf = straight(suit);
+			if (sf != 0) return SF_MASK | sf;
+		}
+		final long pairs = Evaluator.evaluatePlanes(hand);
+		if ((pairs & (QUAD_MASK | BOAT_MASK)) != 0) return pairs;
+		if (suit != 0) return FLUSH_MASK | flush(suit);
+		final long straight = straight(Evaluator.valuesOnly(hand));
+		if (straight != 0) return STRAIGHT_MASK | straight;
+		return pairs;
+	}
+}
@@ -0,0 +1,18 @@
+package dk.olehougaard.poker;
+
+public abstract class Benchmark {
+	private final String name;
+
+	protected Benchmark(String name) {
+		this.name = name;
+	}
+
+	public String getName() {
+		return name;
+	}
+	
+	public void setup() {
+	}
+	
+	public abstract long invoke(Blackhole blackhole);
+}
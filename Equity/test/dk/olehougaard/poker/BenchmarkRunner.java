@@ -0,0 +1,83 @@
+package dk.olehougaard.poker;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+// A minimal timing harness, not JMH: the benchmarks share this JVM, so JIT profiles from one benchmark can skew the next.
+// Compare numbers from separate runs that each select a single benchmark with the name filter.
+public class BenchmarkRunner {
+	private int warmupIterations = 3;
+	private int iterations = 5;
+	private long iterationNanos = 1_000_000_000L;
+	private Pattern filter = Pattern.compile(".*");
+	
+	public BenchmarkRunner(String... args) {
+		for (int i = 0; i < args.length; i++) {
+			switch (args[i]) {
+			case "-wi": warmupIterations = Integer.parseInt(args[++i]); break;
+			case "-i": iterations = Integer.parseInt(args[++i]); break;
+			case "-r": iterationNanos = (long) (Double.parseDouble(args[++i]) * 1e9); break;
+			default:
+				if (args[i].startsWith("-")) throw new IllegalArgumentException("Unknown option: " + args[i]);
+				filter = Pattern.compile(args[i]);
+			}
+		}
+	}
+	
+	public void run(List<Benchmark> benchmarks) {
+		System.out.printf("%-40s %5s %16s %14s %12s %10s%n", "Benchmark", "Cnt", "Score (ops/s)", "Error", "Alloc (MB/s)", "B/op");
+		for (Benchmark benchmark : benchmarks) {
+			if (filter.matcher(benchmark.getName()).find()) report(benchmark, measure(benchmark));
+		}
+	}
+	
+	private List<double[]> measure(Benchmark benchmark) {
+		benchmark.setup();
+		for (int i = 0; i < warmupIterations; i++) iteration(benchmark);
+		List<double[]> scores = new ArrayList<>();
+		for (int i = 0; i < iterations; i++) scores.add(iteration(benchmark));
+		return scores;
+	}
+	
+	private double[] iteration(Benchmark benchmark) {
+		final Blackhole blackhole = new Blackhole();
+		long operations = 0L;
+		final long allocatedBefore = allocatedBytes();
+		final long start = System.nanoTime();
+		long elapsed;
+		do {
+			operations += benchmark.invoke(blackhole);
+			elapsed = System.nanoTime() - start;
+		} while (elapsed < iterationNanos);
+		final long allocated = allocatedBytes() - allocatedBefore;
+		return new double[] { operations * 1e9 / elapsed, allocated * 1e9 / elapsed };
+	}
+	
+	private static long allocatedBytes() {
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if (!(threads instanceof com.sun.management.ThreadMXBean)) return 0L;
+		long total = 0L;
+		for (long allocated : ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(threads.getAllThreadIds())) {
+			if (allocated > 0) total += allocated;
+		}
+		return total;
+	}
+	
+	private static void report(Benchmark benchmark, List<double[]> scores) {
+		double mean = 0.0, allocation = 0.0;
+		for (double[] score : scores) {
+			mean += score[0];
+			allocation += score[1];
+		}
+		mean /= scores.size();
+		allocation /= scores.size();
+		double variance = 0.0;
+		for (double[] score : scores) variance += (score[0] - mean) * (score[0] - mean);
+		final double error = scores.size() > 1 ? Math.sqrt(variance / (scores.size() - 1)) : Double.NaN;
+		System.out.printf("%-40s %5d %16.1f %14.1f %12.1f %10.2f%n", 
+				benchmark.getName(), scores.size(), mean, error, allocation / 1e6, allocation / mean);
+	}
+}
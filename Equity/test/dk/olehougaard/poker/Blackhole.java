@@ -0,0 +1,16 @@
+package dk.olehougaard.poker;
+
+public class Blackhole {
+	private static volatile long escape;
+	// Like JMH's blackhole: the JIT cannot prove a value never equals both fields, so it has to compute every consumed value.
+	private volatile long first = System.nanoTime(), second = first + 1;
+	private volatile double firstDouble = first, secondDouble = second;
+	
+	public void consume(long value) {
+		if (value == first & value == second) escape = value;
+	}
+	
+	public void consume(double value) {
+		if (value == firstDouble & value == secondDouble) escape = Double.doubleToRawLongBits(value);
+	}
+}
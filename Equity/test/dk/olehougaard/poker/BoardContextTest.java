@@ -0,0 +1,71 @@
+package dk.olehougaard.poker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class BoardContextTest {
+	private static final long[] CARDS = Combinations.cards(Hand.HAND_MASK);
+	
+	private static void assertAllHoleCards(long board) {
+		BoardContext context = new BoardContext(board);
+		for (int i = 0; i < CARDS.length; i++) {
+			if ((CARDS[i] & board) != 0) continue;
+			for (int j = i + 1; j < CARDS.length; j++) {
+				if ((CARDS[j] & board) != 0) continue;
+				long hole = CARDS[i] | CARDS[j];
+				assertEquals(Evaluator.evaluateAny(board | hole), context.evaluate(hole));
+			}
+		}
+	}
+	
+	@Test
+	void everyFlopAgreesWithTheEvaluator() {
+		long flop = Combinations.lowest(Hand.HAND_MASK, 3);
+		do {
+			assertAllHoleCards(flop);
+		} while ((flop = Combinations.nextSubset(flop, Hand.HAND_MASK)) != 0);
+	}
+	
+	@Test
+	void randomTurnsAndRiversAgreeWithTheEvaluator() {
+		Dealer dealer = new Dealer(new SplittableRandom(13));
+		for (int i = 0; i < 1000; i++) {
+			assertAllHoleCards(dealer.deal(4));
+			assertAllHoleCards(dealer.deal(5));
+		}
+	}
+	
+	@Test
+	void madeBoardsAgreeWithTheEvaluator() {
+		Dealer dealer = new Dealer(new SplittableRandom(17));
+		for (HandCategory category : HandCategory.values()) {
+			for (int i = 0; i < 100; i++) {
+				assertAllHoleCards(dealer.deal(category, 5, 0L));
+			}
+		}
+	}
+	
+	@Test
+	void contextCanBeReused() {
+		BoardContext context = new BoardContext(Hand.createHand("Ah", "Kh", "Qh"));
+		assertEquals(Evaluator.SF_MASK, context.evaluate(Hand.createHand("Jh", "Th")) & Evaluator.SF_MASK);
+		context.setBoard(Hand.createHand("2c", "2d", "7s", "9h"));
+		assertEquals(context.getBoard(), Hand.createHand("2c", "2d", "7s", "9h"));
+		assertEquals(Evaluator.QUAD_MASK, context.evaluate(Hand.createHand("2h", "2s")) & Evaluator.QUAD_MASK);
+	}
+	
+	@Test
+	void overlappingHoleCardsAreRejected() {
+		BoardContext context = new BoardContext(Hand.createHand("Ah", "Kh", "Qh"));
+		assertThrows(IllegalArgumentException.class, () -> context.evaluate(Hand.createHand("Ah", "2c")));
+	}
+	
+	@Test
+	void boardsMustHaveThreeToFiveCards() {
+		assertThrows(IllegalArgumentException.class, () -> new BoardContext(Hand.createHand("Ah", "Kh")));
+		assertThrows(IllegalArgumentException.class, () -> new BoardContext(Hand.createHand("Ah", "Kh", "Qh", "Jh", "Th", "9h")));
+	}
+}
@@ -0,0 +1,87 @@
+package dk.olehougaard.poker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class CardCountTest {
+	private static long bestOfFive(long hand) {
+		long five = Combinations.lowest(hand, 5);
+		long best = Long.MIN_VALUE;
+		do {
+			best = Math.max(best, Evaluator.evaluate(five));
+		} while ((five = Combinations.nextSubset(five, hand)) != 0);
+		return best;
+	}
+	
+	@Test
+	void everyFiveCardHandHasTheKnownCategoryCounts() {
+		final long[] counts = new long[HandCategory.values().length];
+		final long[] ranks = new long[(int) Combinations.binomial(52, 5)];
+		long hand = Combinations.lowest(Hand.HAND_MASK, 5);
+		int i = 0;
+		do {
+			ranks[i++] = Evaluator.evaluate(hand);
+			counts[HandCategory.ordinalOf(ranks[i - 1])]++;
+		} while ((hand = Combinations.nextSubset(hand, Hand.HAND_MASK)) != 0);
+		assertArrayEquals(new long[] { 1_302_540, 1_098_240, 123_552, 54_912, 10_200, 5_108, 3_744, 624, 40 }, counts);
+		assertEquals(7462, Arrays.stream(ranks).distinct().count());
+	}
+	
+	@Test
+	void everySixCardHandIsTheBestOfItsFiveCardHands() {
+		long hand = Combinations.lowest(Hand.HAND_MASK, 6);
+		do {
+			final long rank = Evaluator.evaluate(hand);
+			if (rank != bestOfFive(hand)) fail("Wrong rank for " + Long.toHexString(hand));
+		} while ((hand = Combinations.nextSubset(hand, Hand.HAND_MASK)) != 0);
+	}
+	
+	@Test
+	void sevenCardHandsAreTheBestOfTheirFiveCardHands() {
+		Dealer dealer = new Dealer(new SplittableRandom(1));
+		for (int i = 0; i < 200_000; i++) {
+			long hand = dealer.deal(7);
+			assertEquals(bestOfFive(hand), Evaluator.evaluate(hand));
+		}
+	}
+	
+	@Test
+	void rareSevenCardHandsAreTheBestOfTheirFiveCardHands() {
+		Dealer dealer = new Dealer(new SplittableRandom(2));
+		for (HandCategory category : HandCategory.values()) {
+			for (int i = 0; i < 10_000; i++) {
+				long hand = dealer.deal(category, 7, 0L);
+				assertEquals(bestOfFive(hand), Evaluator.evaluate(hand));
+			}
+		}
+	}
+	
+	@Test
+	void evaluateAnyDerivesTheCardCount() {
+		Dealer dealer = new Dealer(new SplittableRandom(3));
+		for (int i = 0; i < 10_000; i++) {
+			long five = dealer.deal(5);
+			long six = dealer.deal(6);
+			long seven = dealer.deal(7);
+			assertEquals(Evaluator.evaluate(five), Evaluator.evaluateAny(five));
+			assertEquals(Evaluator.evaluate(six), Evaluator.evaluateAny(six));
+			assertEquals(Evaluator.evaluate(seven), Evaluator.evaluateAny(seven));
+		}
+	}
+	
+	@Test
+	void evaluateAnyRejectsOtherCardCounts() {
+		assertThrows(IllegalArgumentException.class, () -> Evaluator.evaluateAny(Hand.createHand("Ah", "Kh", "Qh", "Jh")));
+	}
+	
+	@Test
+	void aFlopHandComparesWithARiverHand() {
+		long flop = Hand.createHand("Ah", "Ad", "Kc", "7s", "5d");
+		long river = Hand.createHand("Ah", "Ad", "Kc", "7s", "5d", "2c", "3h");
+		assertEquals(Evaluator.evaluate(flop), Evaluator.evaluate(river));
+	}
+}
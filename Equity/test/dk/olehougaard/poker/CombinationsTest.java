@@ -0,0 +1,63 @@
+package dk.olehougaard.poker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Spliterator;
+
+import org.junit.jupiter.api.Test;
+
+class CombinationsTest {
+	private static final long LIVE = Hand.HAND_MASK & ~Hand.createHand("Ah", "Kh", "Qs", "Qd", "2c");
+	
+	@Test
+	void subsetsFollowTheColexOrderOfUnrankSubset() {
+		long subset = Combinations.lowest(LIVE, 3);
+		long previous = 0L;
+		long rank = 0;
+		do {
+			assertEquals(3, Long.bitCount(subset));
+			assertEquals(0L, subset & ~LIVE);
+			assertTrue(Long.compareUnsigned(previous, subset) < 0);
+			assertEquals(subset, Combinations.unrankSubset(rank++, LIVE, 3));
+			previous = subset;
+		} while ((subset = Combinations.nextSubset(subset, LIVE)) != 0);
+		assertEquals(Combinations.binomial(Long.bitCount(LIVE), 3), rank);
+	}
+	
+	@Test
+	void streamsVisitEverySubsetOfTheLiveCardsOnce() {
+		assertEquals(Combinations.binomial(47, 5), Combinations.stream(LIVE, 5).count());
+		assertEquals(Combinations.binomial(47, 5), Combinations.stream(LIVE, 5).parallel().distinct().count());
+		assertTrue(Combinations.stream(LIVE, 5).parallel().allMatch(subset -> Long.bitCount(subset) == 5 && (subset & ~LIVE) == 0));
+	}
+	
+	@Test
+	void parallelStreamsSeeTheSameSubsetsAsSequentialOnes() {
+		assertEquals(Combinations.stream(Hand.HAND_MASK, 4).map(subset -> subset * 31).reduce(0L, (a, b) -> a ^ b), 
+				Combinations.stream(Hand.HAND_MASK, 4).parallel().map(subset -> subset * 31).reduce(0L, (a, b) -> a ^ b));
+	}
+	
+	@Test
+	void spliteratorsSplitByRank() {
+		Spliterator.OfLong high = Combinations.spliterator(LIVE, 4);
+		Spliterator.OfLong low = high.trySplit();
+		long size = Combinations.binomial(47, 4);
+		assertEquals(size / 2, low.estimateSize());
+		assertEquals(size - size / 2, high.estimateSize());
+		long[] first = new long[1];
+		high.tryAdvance((long subset) -> first[0] = subset);
+		assertEquals(Combinations.unrankSubset(size / 2, LIVE, 4), first[0]);
+	}
+	
+	@Test
+	void theEmptySubsetIsEnumeratedOnce() {
+		assertEquals(1, Combinations.stream(LIVE, 0).count());
+		assertEquals(0L, Combinations.stream(LIVE, 0).sum());
+	}
+	
+	@Test
+	void tooFewLiveCardsAreRejected() {
+		assertThrows(IllegalArgumentException.class, () -> Combinations.stream(Hand.createHand("Ah", "Kh"), 3));
+		assertThrows(IllegalArgumentException.class, () -> Combinations.unrankSubset(3, Hand.createHand("Ah", "Kh", "Qh"), 2));
+	}
+}
@@ -0,0 +1,95 @@
+package dk.olehougaard.poker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class DealerTest {
+	@Test
+	void dealsExactlyTheRequestedNumberOfCards() {
+		Dealer dealer = new Dealer(new SplittableRandom(1));
+		for (int cards = 0; cards <= 7; cards++) {
+			long hand = dealer.deal(cards);
+			assertEquals(cards, Long.bitCount(hand));
+			assertEquals(0L, hand & ~Hand.HAND_MASK);
+		}
+	}
+	
+	@Test
+	void neverDealsDeadOrUsedCards() {
+		long dead = Hand.createHand("Ah", "As", "Kd");
+		long used = Hand.createHand("2c", "3c");
+		Dealer dealer = new Dealer(new SplittableRandom(2), dead);
+		for (int i = 0; i < 100_000; i++) {
+			assertEquals(0L, dealer.deal(7, used) & (dead | used));
+		}
+	}
+	
+	@Test
+	void canDealTheWholeLiveDeck() {
+		long dead = Hand.createHand("Ah", "As");
+		Dealer dealer = new Dealer(new SplittableRandom(3), dead);
+		assertEquals(Hand.HAND_MASK & ~dead, dealer.deal(50));
+	}
+	
+	@Test
+	void cannotDealMoreThanTheLiveDeck() {
+		Dealer dealer = new Dealer(new SplittableRandom(4), Hand.createHand("Ah"));
+		assertThrows(IllegalArgumentException.class, () -> dealer.deal(52));
+	}
+	
+	@Test
+	void theSameSeedDealsTheSameHands() {
+		Dealer first = new Dealer(new SplittableRandom(5));
+		Dealer second = new Dealer(new SplittableRandom(5));
+		for (int i = 0; i < 1000; i++) assertEquals(first.deal(7), second.deal(7));
+	}
+	
+	@Test
+	void dealsHandsOfTheRequestedCategory() {
+		Dealer dealer = new Dealer(new SplittableRandom(6));
+		for (HandCategory category : HandCategory.values()) {
+			for (int i = 0; i < 1000; i++) {
+				long hand = dealer.deal(category, 7, 0L);
+				assertEquals(7, Long.bitCount(hand));
+				assertEquals(category, HandCategory.of(Evaluator.evaluate(hand)));
+			}
+		}
+	}
+	
+	@Test
+	void dealsFlopAndTurnHandsOfTheRequestedCategory() {
+		Dealer dealer = new Dealer(new SplittableRandom(9));
+		for (HandCategory category : HandCategory.values()) {
+			assertEquals(category, HandCategory.of(Evaluator.evaluate(dealer.deal(category, 5, 0L))));
+			assertEquals(category, HandCategory.of(Evaluator.evaluate(dealer.deal(category, 6, 0L))));
+		}
+	}
+	
+	@Test
+	void uniformCategoryWeightsOverSampleRareHands() {
+		Dealer dealer = new Dealer(new SplittableRandom(7), 0L, Dealer.uniformCategoryWeights());
+		int[] counts = new int[Dealer.CATEGORIES];
+		for (int i = 0; i < 90_000; i++) counts[HandCategory.ordinalOf(Evaluator.evaluate(dealer.dealWeighted(7)))]++;
+		for (int count : counts) assertEquals(10_000, count, 500);
+	}
+	
+	@Test
+	void categoriesWithoutWeightAreNotDealt() {
+		double[] weights = new double[Dealer.CATEGORIES];
+		weights[HandCategory.QUADS.ordinal()] = 1.0;
+		Dealer dealer = new Dealer(new SplittableRandom(8), 0L, weights);
+		for (int i = 0; i < 1000; i++) assertEquals(HandCategory.QUADS, HandCategory.of(Evaluator.evaluate(dealer.dealWeighted(7))));
+	}
+	
+	@Test
+	void blockedCategoriesAreRejected() {
+		// Every straight holds a five or a ten.
+		long fivesAndTens = Hand.createHand("5c", "5d", "5h", "5s", "Tc", "Td", "Th", "Ts");
+		Dealer dealer = new Dealer(new SplittableRandom(7), fivesAndTens);
+		assertThrows(IllegalStateException.class, () -> dealer.deal(HandCategory.STRAIGHT_FLUSH, 7, 0L));
+		assertThrows(IllegalArgumentException.class, () -> dealer.deal(HandCategory.PAIR, 7, Hand.HAND_MASK & ~fivesAndTens & ~Hand.createHand("2c", "3c")));
+	}
+}
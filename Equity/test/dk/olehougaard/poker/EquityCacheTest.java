@@ -0,0 +1,110 @@
+package dk.olehougaard.poker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class EquityCacheTest {
+	private static final long HERO = Hand.createHand("Ah", "Kh");
+	private static final long BOARD = Hand.createHand("2c", "3c", "4c");
+	private static final long[] VILLAINS = IntStream.range(0, Range.COMBOS).mapToLong(i -> HandIndex.hand(i, 2)).filter(hand -> (hand & (HERO | BOARD)) == 0).toArray();
+	
+	private static class CountingEquity implements EquityCache.Equity {
+		final AtomicLong calls = new AtomicLong();
+		
+		@Override
+		public EquityResult headsUp(long hero, long villain, long board, long dead) {
+			calls.incrementAndGet();
+			return new EquityResult(hero ^ villain, board, dead);
+		}
+	}
+	
+	@Test
+	void repeatedMatchupsAreServedFromTheCache() {
+		CountingEquity equity = new CountingEquity();
+		EquityCache cache = new EquityCache(1 << 20, equity);
+		long villain = Hand.createHand("Qs", "Qd");
+		EquityResult first = cache.headsUp(HERO, villain, 0L);
+		EquityResult second = cache.headsUp(HERO, villain, 0L);
+		assertEquals(1, equity.calls.get());
+		assertEquals(first.getWins(), second.getWins());
+		assertEquals(1, cache.getHits());
+		assertEquals(1, cache.getMisses());
+		assertEquals(1, cache.size());
+	}
+	
+	@Test
+	void suitIsomorphicMatchupsShareAnEntry() {
+		CountingEquity equity = new CountingEquity();
+		EquityCache cache = new EquityCache(1 << 20, equity);
+		cache.headsUp(HERO, Hand.createHand("Qs", "Qd"), Hand.createHand("2h", "7c", "9d"));
+		cache.headsUp(Hand.createHand("As", "Ks"), Hand.createHand("Qh", "Qc"), Hand.createHand("2s", "7d", "9c"));
+		assertEquals(1, equity.calls.get());
+		assertEquals(1, cache.getHits());
+	}
+	
+	@Test
+	void deadCardsArePartOfTheKey() {
+		CountingEquity equity = new CountingEquity();
+		EquityCache cache = new EquityCache(1 << 20, equity);
+		long villain = Hand.createHand("Qs", "Qd");
+		cache.headsUp(HERO, villain, 0L, 0L);
+		cache.headsUp(HERO, villain, 0L, Hand.createHand("Qc"));
+		assertEquals(2, equity.calls.get());
+		assertEquals(0, cache.getHits());
+	}
+	
+	@Test
+	void cachedResultsMatchTheEnumeration() {
+		EquityCache cache = new EquityCache(1 << 20);
+		long villain = Hand.createHand("Qs", "Qd");
+		long flop = Hand.createHand("2h", "7h", "Qc");
+		EquityResult expected = ExhaustiveEquity.headsUp(HERO, villain, flop);
+		for (int i = 0; i < 2; i++) {
+			EquityResult actual = cache.headsUp(HERO, villain, flop);
+			assertEquals(expected.getWins(), actual.getWins());
+			assertEquals(expected.getTies(), actual.getTies());
+			assertEquals(expected.getLosses(), actual.getLosses());
+		}
+	}
+	
+	@Test
+	void frequentMatchupsSurviveAStreamOfOneOffs() {
+		CountingEquity equity = new CountingEquity();
+		EquityCache cache = new EquityCache(EquityCache.BYTES_PER_ENTRY * EquityCache.WAYS, equity);
+		assertEquals(EquityCache.WAYS, cache.getCapacity());
+		long hot = Hand.createHand("Qs", "Qd");
+		for (int i = 0; i < 10; i++) cache.headsUp(HERO, hot, 0L);
+		for (int i = 0; i < 1000; i++) {
+			cache.headsUp(HERO, VILLAINS[i], BOARD);
+			cache.headsUp(HERO, hot, 0L);
+		}
+		assertTrue(cache.size() <= cache.getCapacity());
+		assertTrue(cache.getEvictions() + cache.getRejections() > 0);
+		long calls = equity.calls.get();
+		cache.headsUp(HERO, hot, 0L);
+		assertEquals(calls, equity.calls.get());
+	}
+	
+	@Test
+	void countersAddUpUnderConcurrentUse() {
+		EquityCache cache = new EquityCache(1 << 16, new CountingEquity());
+		IntStream.range(0, 100_000).parallel().forEach(i -> cache.headsUp(HERO, VILLAINS[i % 500], 0L));
+		assertEquals(100_000, cache.getHits() + cache.getMisses());
+		assertTrue(cache.getHits() > 0);
+	}
+	
+	@Test
+	void tooSmallBudgetsAreRejected() {
+		assertThrows(IllegalArgumentException.class, () -> new EquityCache(EquityCache.BYTES_PER_ENTRY));
+	}
+	
+	@Test
+	void keysFitInFortySevenBits() {
+		long key = EquityCache.key(Hand.createHand("As", "Ks"), Hand.createHand("Qs", "Js"), Hand.createHand("Ts", "9s", "8s", "7s", "6s"));
+		assertEquals(0L, key >>> 47);
+	}
+}
@@ -0,0 +1,89 @@
+package dk.olehougaard.poker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class EquitySessionTest {
+	private static final long[] SIX_HANDED = { Hand.createHand("Ah", "As"), Hand.createHand("Kd", "Kc"), Hand.createHand("7h", "8h"),
+			Hand.createHand("Qs", "Js"), Hand.createHand("2c", "2d"), Hand.createHand("Ad", "Tc") };
+	private static final long[] BOARD = { Hand.createHand("9h"), Hand.createHand("Th"), Hand.createHand("2s"), Hand.createHand("Kh"), Hand.createHand("3c") };
+	
+	private static void assertSameResult(MultiwayResult expected, MultiwayResult actual) {
+		assertEquals(expected.getRunouts(), actual.getRunouts());
+		assertArrayEquals(expected.getWins(), actual.getWins());
+		for (int player = 0; player < expected.getPlayers(); player++) {
+			for (int ways = 2; ways <= expected.getPlayers(); ways++) {
+				assertEquals(expected.getTies(player, ways), actual.getTies(player, ways));
+			}
+		}
+	}
+	
+	@Test
+	void everyStreetMatchesAFreshEnumeration() {
+		long dead = Hand.createHand("4c");
+		EquitySession session = new EquitySession(SIX_HANDED, dead);
+		assertSameResult(MultiwayEquity.enumerate(SIX_HANDED, 0L, dead), session.getResult());
+		long board = 0L;
+		for (long card : BOARD) {
+			board |= card;
+			assertSameResult(MultiwayEquity.enumerate(SIX_HANDED, board, dead), session.reveal(card));
+			assertEquals(board, session.getBoard());
+		}
+	}
+	
+	@Test
+	void headsUpMatchesTheHeadsUpEngine() {
+		long hero = Hand.createHand("Ah", "Kh");
+		long villain = Hand.createHand("Qs", "Qd");
+		long flop = Hand.createHand("2h", "7h", "Qc");
+		EquitySession session = new EquitySession(new long[] { hero, villain }, flop, 0L);
+		EquityResult headsUp = ExhaustiveEquity.headsUp(hero, villain, flop);
+		assertEquals(headsUp.getTotal(), session.getResult().getRunouts());
+		assertEquals(headsUp.getEquity(), session.getResult().getEquity(0), 1e-12);
+	}
+	
+	@Test
+	void previewDoesNotRevealTheCard() {
+		EquitySession session = new EquitySession(SIX_HANDED, BOARD[0] | BOARD[1] | BOARD[2], 0L);
+		MultiwayResult flop = session.getResult();
+		assertSameResult(MultiwayEquity.enumerate(SIX_HANDED, BOARD[0] | BOARD[1] | BOARD[2] | BOARD[3], 0L), session.preview(BOARD[3]));
+		assertSame(flop, session.getResult());
+		assertEquals(BOARD[0] | BOARD[1] | BOARD[2], session.getBoard());
+	}
+	
+	@Test
+	void previewsOfAllNextCardsAddUpToTheCurrentStreet() {
+		EquitySession session = new EquitySession(SIX_HANDED, BOARD[0] | BOARD[1] | BOARD[2], 0L);
+		long wins = 0;
+		long runouts = 0;
+		long live = Hand.HAND_MASK & ~session.getBoard();
+		for (long player : SIX_HANDED) live &= ~player;
+		for (long card : Combinations.cards(live)) {
+			MultiwayResult next = session.preview(card);
+			wins += next.getWins(0);
+			runouts += next.getRunouts();
+		}
+		assertEquals(2 * session.getResult().getRunouts(), runouts);
+		assertEquals(2 * session.getResult().getWins(0), wins);
+	}
+	
+	@Test
+	void deadAndDealtCardsCannotBeRevealed() {
+		long dead = Hand.createHand("4c");
+		EquitySession session = new EquitySession(SIX_HANDED, BOARD[0], dead);
+		assertThrows(IllegalArgumentException.class, () -> session.reveal(dead));
+		assertThrows(IllegalArgumentException.class, () -> session.reveal(Hand.createHand("Ah")));
+		assertThrows(IllegalArgumentException.class, () -> session.reveal(BOARD[0]));
+		assertThrows(IllegalArgumentException.class, () -> session.reveal(BOARD[1] | BOARD[2]));
+	}
+	
+	@Test
+	void aCompleteBoardCannotBeExtended() {
+		long board = 0L;
+		for (long card : BOARD) board |= card;
+		EquitySession session = new EquitySession(SIX_HANDED, board, 0L);
+		assertEquals(1L, session.getResult().getRunouts());
+		assertThrows(IllegalArgumentException.class, () -> session.reveal(Hand.createHand("5c")));
+	}
+}
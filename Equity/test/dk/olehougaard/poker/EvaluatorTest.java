@@ -1,8 +1,16 @@
 package dk.olehougaard.poker;
 
 import static dk.olehougaard.poker.Evaluator.*;
+import static dk.olehougaard.poker.Hand.ALL_SUIT_POSITIONS;
+import static dk.olehougaard.poker.Hand.BITS_PER_SUIT;
+import static dk.olehougaard.poker.Hand.CLUB_MASK;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
 import org.junit.jupiter.api.Test;
 
 class EvaluatorTest {
@@ -95,6 +103,13 @@ class EvaluatorTest {
 		assertTrue(evaluate(high) > evaluate(low));
 	}
 
+	@Test
+	void fourAcesIsAQuad() {
+		long hand = Hand.createHand("Ac", "As", "Ad", "Ah", "Jc", "3c", "5c");
+		assertNotEquals(0L, evaluate(hand) & QUAD_MASK);
+		assertEquals(1L << Hand.ACE_INDEX, (evaluate(hand) & MSP_MASK) >> MSP_INDEX);
+	}
+
 	@Test
 	void fourOfAKindAndThreeOfAKindIsAQuad() {
 		long hand = Hand.createHand("Ac", "Js", "Jd", "Jh", "Jc", "Ad", "Ah");
@@ -469,4 +484,219 @@ class EvaluatorTest {
 		long equal = Hand.createHand("Ac", "Js", "Ts", "4h", "2d", "8s", "7s");
 		assertTrue(evaluate(equal) == evaluate(hand));
 	}
+	
+	// BATCH
+	private static final long[] SHOWDOWNS = {
+		Hand.createHand("Ac", "Js", "Ts", "2h", "9s", "8s", "7s"),
+		Hand.createHand("Ac", "Js", "Jd", "Jh", "Jc", "3c", "5c"),
+		Hand.createHand("Qs", "Jd", "Jh", "Jc", "Ac", "3c", "Ad"),
+		Hand.createHand("Qc", "Jd", "Tc", "Jc", "Ac", "3c", "Ad"),
+		Hand.createHand("Qs", "Jd", "Tc", "Jc", "Kc", "9h", "4d"),
+		Hand.createHand("Ac", "Js", "Ts", "2h", "2d", "2s", "7s"),
+		Hand.createHand("Jc", "Js", "Ts", "2h", "2d", "Td", "7s"),
+		Hand.createHand("Ac", "Js", "Ts", "2h", "2d", "8s", "7s"),
+		Hand.createHand("Ac", "Js", "Ts", "3h", "2d", "8s", "7s"),
+	};
+	
+	@Test
+	void batchEvaluationEvaluatesEveryHand() {
+		long[] ranks = new long[SHOWDOWNS.length];
+		evaluate(SHOWDOWNS, ranks);
+		for (int i = 0; i < SHOWDOWNS.length; i++) assertEquals(evaluate(SHOWDOWNS[i]), ranks[i]);
+	}
+	
+	@Test
+	void batchEvaluationOnlyTouchesTheRange() {
+		long[] ranks = new long[SHOWDOWNS.length];
+		evaluate(SHOWDOWNS, ranks, 2, 7);
+		for (int i = 0; i < SHOWDOWNS.length; i++) assertEquals(i >= 2 && i < 7 ? evaluate(SHOWDOWNS[i]) : 0L, ranks[i]);
+	}
+	
+	@Test
+	void batchEvaluationRejectsBadRanges() {
+		assertThrows(IndexOutOfBoundsException.class, () -> evaluate(SHOWDOWNS, new long[3], 0, SHOWDOWNS.length));
+	}
+	
+	@Test
+	void bufferEvaluationHandlesDirectBuffers() {
+		LongBuffer hands = ByteBuffer.allocateDirect(SHOWDOWNS.length * Long.BYTES).asLongBuffer();
+		hands.put(SHOWDOWNS).flip();
+		LongBuffer ranks = LongBuffer.allocate(SHOWDOWNS.length + 1);
+		ranks.put(0L);
+		evaluate(hands, ranks);
+		assertFalse(hands.hasRemaining());
+		for (int i = 0; i < SHOWDOWNS.length; i++) assertEquals(evaluate(SHOWDOWNS[i]), ranks.get(i + 1));
+	}
+	
+	@Test
+	void bufferEvaluationHandlesHeapBuffers() {
+		LongBuffer hands = LongBuffer.wrap(SHOWDOWNS, 1, SHOWDOWNS.length - 1);
+		LongBuffer ranks = LongBuffer.allocate(SHOWDOWNS.length);
+		evaluate(hands, ranks);
+		assertEquals(SHOWDOWNS.length - 1, ranks.position());
+		for (int i = 1; i < SHOWDOWNS.length; i++) assertEquals(evaluate(SHOWDOWNS[i]), ranks.get(i - 1));
+	}
+	
+	private static long evaluatePaired(long hand, int surplus) {
+		long odd_paired = hand & ((hand >>> BITS_PER_SUIT) | (hand << Long.SIZE - BITS_PER_SUIT));
+		long even_paired = hand & (hand >> 2 * BITS_PER_SUIT);
+		long paired = odd_paired | even_paired;
+		paired |= paired >> 2 * BITS_PER_SUIT;
+		paired |= paired >> BITS_PER_SUIT;
+		paired &= CLUB_MASK;
+		long hand_type = 0L;
+		long msp_mask = 0L;
+		long lsp_mask = 0L;
+		int counterfeited = 0;
+		while (paired != 0) {
+			final short lsb = (short)(paired & (-paired));
+			long pair_count = hand & (lsb * ALL_SUIT_POSITIONS);
+			pair_count += pair_count >> 2 * BITS_PER_SUIT;
+			pair_count += pair_count >> BITS_PER_SUIT;
+			switch ((int) ((pair_count & BitUtils.SHORT_MASK) / lsb)) {
+			case 4:
+				if (hand_type == TRIP_MASK) {
+					counterfeited = 2;
+				} else if (msp_mask != 0) {
+					counterfeited = 1;
+				}
+				hand_type = QUAD_MASK;
+				msp_mask = lsb;
+				lsp_mask = 0;
+				break;
+			case 3:
+				if (hand_type == QUAD_MASK) {
+					counterfeited = 2;
+				} else if (msp_mask != 0) {
+					hand_type = BOAT_MASK;
+					lsp_mask = msp_mask;
+					msp_mask = lsb;
+				} else {
+					hand_type = TRIP_MASK;
+					msp_mask = lsb;
+				}
+				break;
+			case 2:
+				if (hand_type == QUAD_MASK) {
+					counterfeited = 1;
+				} else if (hand_type == BOAT_MASK) {
+					lsp_mask = lsb;
+				} else if (hand_type == TRIP_MASK) {
+					hand_type = BOAT_MASK;
+					lsp_mask = lsb;
+				} else if (msp_mask != 0) {
+					hand_type = TWO_PAIR_MASK;
+					if (lsp_mask != 0) counterfeited = 1;
+					lsp_mask = msp_mask;
+					msp_mask = lsb;
+				} else {
+					msp_mask = lsb;
+				}
+			}
+			paired &= paired - 1;
+		}
+		long unpaired = valuesOnly(hand) & ~(msp_mask | lsp_mask);
+		for (int strip = surplus - counterfeited; strip > 0; strip--) unpaired &= unpaired - 1;
+		return hand_type | (msp_mask << MSP_INDEX) | (lsp_mask << LSP_INDEX) | unpaired;
+	}
+	
+	private static int assertPlanesMatch(int[] counts, int rank, int cards) {
+		if (rank == counts.length) {
+			if (cards != 0) return 0;
+			long hand = 0L;
+			int size = 0;
+			for (int r = 0; r < counts.length; r++) {
+				for (int suit = 0; suit < counts[r]; suit++) hand |= 1L << (suit * Hand.BITS_PER_SUIT + r + Hand.DEUCE_INDEX);
+				size += counts[r];
+			}
+			assertEquals(evaluatePaired(hand, size - 5), evaluatePlanes(hand), Long.toHexString(hand));
+			return 1;
+		}
+		int multisets = 0;
+		for (int count = 0; count <= Math.min(4, cards); count++) {
+			counts[rank] = count;
+			multisets += assertPlanesMatch(counts, rank + 1, cards - count);
+		}
+		counts[rank] = 0;
+		return multisets;
+	}
+	
+	@Test
+	void planesMatchThePairedLoopForEverySevenCardRankMultiset() {
+		assertEquals(49205, assertPlanesMatch(new int[HandIndex.RANKS], 0, 7));
+	}
+	
+	@Test
+	void planesMatchThePairedLoopForEverySixCardRankMultiset() {
+		assertEquals(18395, assertPlanesMatch(new int[HandIndex.RANKS], 0, 6));
+	}
+	
+	@Test
+	void planesMatchThePairedLoopForEveryFiveCardRankMultiset() {
+		assertEquals(6175, assertPlanesMatch(new int[HandIndex.RANKS], 0, 5));
+	}
+	
+	// HI/LO
+	@Test
+	void aWheelIsTheBestLow() {
+		long wheel = Hand.createHand("Ac", "2d", "3h", "4s", "5c", "Kd", "Kh");
+		long sixLow = Hand.createHand("Ac", "2d", "3h", "4s", "6c", "Kd", "Kh");
+		assertTrue(evaluateLow(wheel) > evaluateLow(sixLow));
+	}
+	
+	@Test
+	void lowsAreComparedFromTheTopCard() {
+		long sevenLow = Hand.createHand("7c", "6d", "5h", "4s", "3c", "Kd", "Qh");
+		long eightLow = Hand.createHand("8c", "4d", "3h", "2s", "Ac", "Kd", "Qh");
+		assertTrue(evaluateLow(sevenLow) > evaluateLow(eightLow));
+	}
+	
+	@Test
+	void theBestFiveLowCardsMakeTheLow() {
+		long hand = Hand.createHand("8c", "7d", "5h", "4s", "3c", "2d", "Ah");
+		assertEquals(evaluateLow(Hand.createHand("5h", "4s", "3c", "2d", "Ah")), evaluateLow(hand));
+	}
+	
+	@Test
+	void pairsAndNinesDoNotMakeALow() {
+		assertEquals(0L, evaluateLow(Hand.createHand("Ac", "Ad", "2h", "3s", "4c", "Kd", "Kh")));
+		assertEquals(0L, evaluateLow(Hand.createHand("Ac", "9d", "2h", "3s", "4c", "Kd", "Kh")));
+	}
+	
+	@Test
+	void aQualifyingLowCanComeWithAnyHigh() {
+		long flush = Hand.createHand("Ac", "2c", "3c", "4c", "9c", "5d", "Kh");
+		assertEquals(FLUSH_MASK, evaluateHiLo(flush) & FLUSH_MASK);
+		assertNotEquals(0L, evaluateHiLo(flush) & LOW_MASK);
+		long steelWheel = Hand.createHand("Ac", "2c", "3c", "4c", "5c", "5d", "Kh");
+		assertEquals(SF_MASK, evaluateHiLo(steelWheel) & SF_MASK);
+		assertEquals(evaluateLow(steelWheel), evaluateHiLo(steelWheel) & LOW_MASK);
+	}
+	
+	@Test
+	void hiLoEvaluationIsTheHighAndTheLowEvaluationTogether() {
+		Dealer dealer = new Dealer(new SplittableRandom(8));
+		for (int i = 0; i < 200_000; i++) {
+			long hand = dealer.deal(5 + i % 3);
+			long hiLo = evaluateHiLo(hand);
+			assertEquals(evaluateAny(hand), hiLo & HIGH_MASK);
+			assertEquals(evaluateLow(hand), hiLo & LOW_MASK);
+		}
+	}
+	
+	@Test
+	void thereAreFiftySixLowsInOrder() {
+		long[] lows = EvaluatorVerifier.hands(5).map(Evaluator::evaluateLow).filter(low -> low != 0).toArray();
+		assertEquals(56 * 1024, lows.length);
+		long[] distinct = Arrays.stream(lows).distinct().sorted().toArray();
+		assertEquals(56, distinct.length);
+		for (int i = 1; i < distinct.length; i++) {
+			long worse = (LOW_MASK ^ distinct[i - 1]) >>> LOW_INDEX, better = (LOW_MASK ^ distinct[i]) >>> LOW_INDEX;
+			while (Long.highestOneBit(worse) == Long.highestOneBit(better)) {
+				worse ^= Long.highestOneBit(worse);
+				better ^= Long.highestOneBit(better);
+			}
+			assertTrue(Long.highestOneBit(worse) > Long.highestOneBit(better));
+		}
+	}
 }
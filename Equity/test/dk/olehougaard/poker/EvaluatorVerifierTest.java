@@ -0,0 +1,65 @@
+package dk.olehougaard.poker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+class EvaluatorVerifierTest {
+	@Test
+	void everySevenCardHandIsOrderedTheSameByTheTableEvaluator() {
+		EvaluatorVerifier.Report report = EvaluatorVerifier.verify(HandEvaluator.TABLE_EVALUATOR, 7);
+		assertEquals(133_784_560L, report.getHands());
+		assertEquals(4824, report.getDistinctRanks());
+	}
+	
+	@Test
+	void fiveAndSixCardHandsMatchTheKnownCounts() {
+		for (int cards = 5; cards <= 6; cards++) {
+			assertEquals(HandIndex.size(cards), EvaluatorVerifier.verify(HandEvaluator.EVALUATOR, cards).getHands());
+			assertEquals(HandIndex.size(cards), EvaluatorVerifier.verify(HandEvaluator.TABLE_EVALUATOR, cards).getHands());
+		}
+	}
+	
+	@Test
+	void rankTablesCanBeVerified() throws IOException {
+		Path file = Files.createTempFile("ranks", ".bin");
+		file.toFile().deleteOnExit();
+		RankTable.build(file, 5);
+		assertEquals(7462, EvaluatorVerifier.verify(RankTable.load(file), 5).getDistinctRanks());
+	}
+	
+	@Test
+	void aBackendWithTheWrongOrderIsCaught() {
+		HandEvaluator swapped = hand -> {
+			long rank = Evaluator.evaluate(hand);
+			if ((rank & Evaluator.FLUSH_MASK) != 0) return rank ^ Evaluator.FLUSH_MASK ^ Evaluator.STRAIGHT_MASK;
+			if ((rank & Evaluator.STRAIGHT_MASK) != 0 && (rank & Evaluator.SF_MASK) == 0) return rank ^ Evaluator.FLUSH_MASK ^ Evaluator.STRAIGHT_MASK;
+			return rank;
+		};
+		assertThrows(IllegalStateException.class, () -> EvaluatorVerifier.verify(swapped, 5));
+	}
+	
+	@Test
+	void aBackendThatMergesRanksIsCaught() {
+		HandEvaluator coarse = hand -> Evaluator.evaluate(hand) & ~Evaluator.UNPAIRED_MASK;
+		assertThrows(IllegalStateException.class, () -> EvaluatorVerifier.verify(coarse, 5));
+	}
+	
+	@Test
+	void throughputSweepsEveryHand() {
+		EvaluatorVerifier.Report report = EvaluatorVerifier.throughput(HandEvaluator.TABLE_EVALUATOR, 5);
+		assertEquals(2_598_960L, report.getHands());
+		assertTrue(report.getHandsPerSecond() > 0);
+		assertArrayEquals(new long[] { 1_302_540, 1_098_240, 123_552, 54_912, 10_200, 5_108, 3_744, 624, 40 }, report.getCategories());
+	}
+	
+	@Test
+	void unsupportedHandSizesAreRejected() {
+		assertThrows(IllegalArgumentException.class, () -> EvaluatorVerifier.hands(4));
+		assertThrows(IllegalArgumentException.class, () -> EvaluatorVerifier.hands(8));
+	}
+}
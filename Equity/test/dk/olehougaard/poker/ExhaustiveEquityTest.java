@@ -0,0 +1,68 @@
+package dk.olehougaard.poker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class ExhaustiveEquityTest {
+	@Test
+	void preflopEnumeratesEveryBoard() {
+		EquityResult result = ExhaustiveEquity.headsUp(Hand.createHand("Ah", "As"), Hand.createHand("Kd", "Kc"));
+		assertEquals(1_712_304L, result.getTotal());
+	}
+
+	@Test
+	void acesAreAboutFourToOneOverKings() {
+		EquityResult result = ExhaustiveEquity.headsUp(Hand.createHand("Ah", "As"), Hand.createHand("Kd", "Kc"));
+		assertEquals(0.82, result.getEquity(), 0.01);
+	}
+
+	@Test
+	void swappingThePlayersSwapsWinsAndLosses() {
+		long hero = Hand.createHand("Ah", "Kh");
+		long villain = Hand.createHand("Qs", "Qd");
+		long flop = Hand.createHand("2h", "7h", "Qc");
+		EquityResult result = ExhaustiveEquity.headsUp(hero, villain, flop);
+		EquityResult swapped = ExhaustiveEquity.headsUp(villain, hero, flop);
+		assertEquals(result.getWins(), swapped.getLosses());
+		assertEquals(result.getTies(), swapped.getTies());
+		assertEquals(result.getLosses(), swapped.getWins());
+	}
+
+	@Test
+	void aCompleteBoardHasOneOutcome() {
+		long hero = Hand.createHand("Ah", "Kh");
+		long villain = Hand.createHand("Qs", "Qd");
+		long board = Hand.createHand("2h", "7h", "Qc", "3s", "9h");
+		EquityResult result = ExhaustiveEquity.headsUp(hero, villain, board);
+		assertEquals(1L, result.getWins());
+		assertEquals(1L, result.getTotal());
+	}
+
+	@Test
+	void deadCardsAreNotDealt() {
+		long hero = Hand.createHand("Ah", "Kh");
+		long villain = Hand.createHand("Qs", "Qd");
+		long board = Hand.createHand("2h", "7h", "Qc", "3s");
+		EquityResult result = ExhaustiveEquity.headsUp(hero, villain, board, Hand.createHand("4h", "5h"));
+		assertEquals(42L, result.getTotal());
+		assertEquals(5L, result.getWins());
+	}
+
+	@Test
+	void sameHoleCardRanksMostlyTie() {
+		EquityResult result = ExhaustiveEquity.headsUp(Hand.createHand("Ah", "Kh"), Hand.createHand("Ad", "Kd"));
+		assertTrue(result.getTies() > result.getWins() + result.getLosses());
+		assertEquals(result.getWins(), result.getLosses());
+	}
+
+	@Test
+	void sharedCardsAreRejected() {
+		assertThrows(IllegalArgumentException.class, () -> ExhaustiveEquity.headsUp(Hand.createHand("Ah", "Kh"), Hand.createHand("Ah", "Kd")));
+	}
+
+	@Test
+	void holeCardsMustBeTwoCards() {
+		assertThrows(IllegalArgumentException.class, () -> ExhaustiveEquity.headsUp(Hand.createHand("Ah"), Hand.createHand("Qs", "Kd")));
+	}
+}
@@ -0,0 +1,125 @@
+package dk.olehougaard.poker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class HandHistoryTest {
+	private static Path write(String... lines) throws IOException {
+		Path file = Files.createTempFile("history", ".txt");
+		file.toFile().deleteOnExit();
+		Files.write(file, String.join("\n", lines).getBytes(StandardCharsets.US_ASCII));
+		return file;
+	}
+	
+	private static String card(long card) {
+		final int bit = Long.numberOfTrailingZeros(card);
+		return "" + "23456789TJQKA".charAt(bit % Hand.BITS_PER_SUIT - Hand.DEUCE_INDEX) + "cdhs".charAt(bit / Hand.BITS_PER_SUIT);
+	}
+	
+	@Test
+	void cardsAreParsedFromBytes() {
+		assertEquals(Hand.createCard("Ah"), HandHistory.card((byte) 'A', (byte) 'h'));
+		assertEquals(Hand.createCard("Tc"), HandHistory.card((byte) 't', (byte) 'C'));
+		assertEquals(Hand.createCard("2s"), HandHistory.card((byte) '2', (byte) 's'));
+		assertEquals(0L, HandHistory.card((byte) '1', (byte) 's'));
+		assertEquals(0L, HandHistory.card((byte) 'A', (byte) 'x'));
+	}
+	
+	@Test
+	void showdownsAreVerified() throws IOException {
+		Path file = write(
+				"# river showdowns",
+				"1 AhKd7c2s9h 5 100 0 AsAd KcQc",
+				"2 AhKd7c2s9h 5 100 1 AsAd KcQc",
+				"3 2c3c4c5c6c 5 90 0,1,2 AsAd KhQh Jd9d",
+				"",
+				"4 AhKd7c2s9h 5 100 0 AsAd AsQc",
+				"5 AhKd7c2s 5 100 0 AsAd KcQc");
+		List<Long> mismatched = new ArrayList<>();
+		HistoryResult result = HandHistory.ingest(new Path[] { file }, mismatched::add);
+		assertEquals(3, result.getHands());
+		assertEquals(2, result.getMalformed());
+		assertEquals(1, result.getMismatches());
+		assertEquals(1, mismatched.size());
+		assertEquals(2L, (long) mismatched.get(0));
+		assertEquals(0, result.getAllIns());
+	}
+	
+	@Test
+	void allInsAreCreditedWithTheirEquity() throws IOException {
+		Path file = write("7 2h7hQcKsAd 3 1000 1 AhKh QsQd");
+		HistoryResult result = HandHistory.ingest(file);
+		double equity = ExhaustiveEquity.headsUp(Hand.createHand("Ah", "Kh"), Hand.createHand("Qs", "Qd"), Hand.createHand("2h", "7h", "Qc")).getEquity();
+		assertEquals(1, result.getAllIns());
+		assertEquals(1000 * equity, result.getExpected(0), 1e-9);
+		assertEquals(0.0, result.getActual(0), 0.0);
+		assertEquals(1000.0, result.getActual(1), 0.0);
+		assertEquals(1000 * equity, result.getAdjustment(0), 1e-9);
+		assertEquals(-1000 * equity, result.getAdjustment(1), 1e-9);
+	}
+	
+	@Test
+	void chunksSplitOnLineBoundaries() throws IOException {
+		Dealer dealer = new Dealer(new SplittableRandom(16));
+		String[] lines = new String[2000];
+		for (int i = 0; i < lines.length; i++) {
+			long used = 0L;
+			StringBuilder line = new StringBuilder().append(i).append(' ');
+			long board = dealer.deal(ExhaustiveEquity.BOARD_SIZE, used);
+			used |= board;
+			for (long card : Combinations.cards(board)) line.append(card(card));
+			line.append(" 5 10 ");
+			long[] holes = new long[2 + i % 5];
+			long best = Long.MIN_VALUE;
+			for (int seat = 0; seat < holes.length; seat++) {
+				holes[seat] = dealer.deal(ExhaustiveEquity.HOLE_CARDS, used);
+				used |= holes[seat];
+				best = Math.max(best, Evaluator.evaluate(holes[seat] | board));
+			}
+			String separator = "";
+			for (int seat = 0; seat < holes.length; seat++) {
+				if (Evaluator.evaluate(holes[seat] | board) != best) continue;
+				line.append(separator).append(seat);
+				separator = ",";
+			}
+			for (long hole : holes) {
+				line.append(' ');
+				for (long card : Combinations.cards(hole)) line.append(card(card));
+			}
+			lines[i] = line.toString();
+		}
+		Path file = write(lines);
+		HistoryResult whole = HandHistory.ingest(new Path[] { file }, id -> {}, HandHistory.CHUNK_SIZE);
+		HistoryResult chunked = HandHistory.ingest(new Path[] { file }, id -> {}, 100);
+		assertEquals(lines.length, whole.getHands());
+		assertEquals(0, whole.getMismatches());
+		assertEquals(0, whole.getMalformed());
+		assertEquals(lines.length, chunked.getHands());
+		assertEquals(0, chunked.getMismatches());
+		assertEquals(0, chunked.getMalformed());
+	}
+	
+	@Test
+	void mismatchesFromEveryChunkReachTheListenerInFileOrder() throws IOException {
+		String[] lines = new String[200];
+		List<Long> expected = new ArrayList<>();
+		for (int i = 0; i < lines.length; i++) {
+			int claimed = i % 7 == 3 ? 1 : 0;
+			if (claimed != 0) expected.add((long) i);
+			lines[i] = i + " AhKd7c2s9h 5 100 " + claimed + " AsAd KcQc";
+		}
+		List<Long> mismatched = new ArrayList<>();
+		HistoryResult result = HandHistory.ingest(new Path[] { write(lines) }, mismatched::add, 100);
+		assertEquals(expected, mismatched);
+		assertEquals(expected.size(), result.getMismatches());
+	}
+}
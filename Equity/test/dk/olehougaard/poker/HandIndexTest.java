@@ -0,0 +1,78 @@
+package dk.olehougaard.poker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class HandIndexTest {
+	@Test
+	void theIndexSpaceIsTheNumberOfHands() {
+		assertEquals(1326, HandIndex.size(2));
+		assertEquals(2_598_960, HandIndex.size(5));
+		assertEquals(133_784_560, HandIndex.size(7));
+	}
+	
+	@Test
+	void everyCardHasANumber() {
+		long seen = 0L;
+		for (int number = 0; number < HandIndex.CARDS_IN_DECK; number++) {
+			long card = HandIndex.card(number);
+			assertEquals(number, HandIndex.cardNumber(card));
+			seen |= card;
+		}
+		assertEquals(Hand.HAND_MASK, seen);
+	}
+	
+	@Test
+	void theLowestHandHasIndexZero() {
+		assertEquals(0, HandIndex.index(Hand.createHand("2c", "3c")));
+		assertEquals(0, HandIndex.index(0L));
+	}
+	
+	@Test
+	void theHighestHandHasTheLastIndex() {
+		assertEquals(1325, HandIndex.index(Hand.createHand("Ks", "As")));
+	}
+	
+	@Test
+	void everyHoleCardIndexIsDenseAndReversible() {
+		boolean[] seen = new boolean[HandIndex.size(2)];
+		long[] cards = Combinations.cards(Hand.HAND_MASK);
+		for (int i = 0; i < cards.length; i++) {
+			for (int j = i + 1; j < cards.length; j++) {
+				long hand = cards[i] | cards[j];
+				int index = HandIndex.index(hand);
+				assertFalse(seen[index]);
+				seen[index] = true;
+				assertEquals(hand, HandIndex.hand(index, 2));
+			}
+		}
+	}
+	
+	@Test
+	void everyFiveCardIndexIsReversible() {
+		for (int index = 0; index < HandIndex.size(5); index++) {
+			long hand = HandIndex.hand(index, 5);
+			assertEquals(5, Long.bitCount(hand));
+			assertEquals(index, HandIndex.index(hand));
+		}
+	}
+	
+	@Test
+	void randomSevenCardIndicesAreReversible() {
+		Dealer dealer = new Dealer(new SplittableRandom(1));
+		for (int i = 0; i < 1_000_000; i++) {
+			long hand = dealer.deal(7);
+			int index = HandIndex.index(hand);
+			assertTrue(index < HandIndex.size(7));
+			assertEquals(hand, HandIndex.hand(index, 7));
+		}
+	}
+	
+	@Test
+	void tooManyCardsCannotBeIndexed() {
+		assertThrows(IllegalArgumentException.class, () -> HandIndex.index(Hand.createHand("2c", "3c", "4c", "5c", "6c", "7c", "8c", "9c")));
+	}
+}
@@ -0,0 +1,127 @@
+package dk.olehougaard.poker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class HandStrengthTest {
+	private static final long FLOP = Hand.createHand("2h", "7h", "Qc");
+	private static final long TURN = Hand.createHand("2h", "7h", "Qc", "8d");
+	private static final long RIVER = Hand.createHand("2h", "7h", "Qc", "8d", "Ts");
+	
+	private static int state(long hero, long villain) {
+		return hero > villain ? 0 : hero == villain ? 1 : 2;
+	}
+	
+	private static double[][] transitions(long hero, long board, Range villain, int bins, int[] histogram) {
+		double[][] transitions = new double[3][3];
+		long live = Hand.HAND_MASK & ~(board | hero);
+		int missing = ExhaustiveEquity.BOARD_SIZE - Long.bitCount(board);
+		long runout = Combinations.lowest(live, missing);
+		do {
+			double ahead = 0, tied = 0, total = 0;
+			for (int v = 0; v < Range.COMBOS; v++) {
+				long villainCards = HandIndex.hand(v, 2);
+				double weight = villain.weight(v);
+				if (weight == 0 || (villainCards & (hero | board | runout)) != 0) continue;
+				int now = state(Evaluator.evaluateAny(hero | board), Evaluator.evaluateAny(villainCards | board));
+				int showdown = state(Evaluator.evaluate(hero | board | runout), Evaluator.evaluate(villainCards | board | runout));
+				transitions[now][showdown] += weight;
+				if (showdown == 0) ahead += weight;
+				if (showdown == 1) tied += weight;
+				total += weight;
+			}
+			if (total > 0) histogram[Math.min(bins - 1, (int) ((ahead + tied / 2) / total * bins))]++;
+		} while ((runout = Combinations.nextSubset(runout, live)) != 0);
+		return transitions;
+	}
+	
+	private static void assertMatchesBruteForce(HandStrengthResult result, long hero, long board, Range villain) {
+		int[] histogram = new int[result.getBins()];
+		double[][] t = transitions(hero, board, villain, result.getBins(), histogram);
+		double ahead = t[0][0] + t[0][1] + t[0][2], tied = t[1][0] + t[1][1] + t[1][2], behind = t[2][0] + t[2][1] + t[2][2];
+		double strength = (ahead + tied / 2) / (ahead + tied + behind);
+		double positive = behind + tied == 0 ? 0.0 : (t[2][0] + t[2][1] / 2 + t[1][0] / 2) / (behind + tied / 2);
+		double negative = ahead + tied == 0 ? 0.0 : (t[0][2] + t[0][1] / 2 + t[1][2] / 2) / (ahead + tied / 2);
+		double won = t[0][0] + t[1][0] + t[2][0], split = t[0][1] + t[1][1] + t[2][1];
+		assertEquals(strength, result.getHandStrength(hero), 1e-9);
+		assertEquals(positive, result.getPositivePotential(hero), 1e-9);
+		assertEquals(negative, result.getNegativePotential(hero), 1e-9);
+		assertEquals((won + split / 2) / (ahead + tied + behind), result.getEquity(hero), 1e-9);
+		assertEquals(strength * (1 - negative) + (1 - strength) * positive, result.getEffectiveHandStrength(hero), 1e-9);
+		assertArrayEquals(histogram, result.getHistogram(hero));
+	}
+	
+	@Test
+	void theTurnMatchesABruteForceCountForAWeightedRange() {
+		Range villain = Range.parse("22+:0.5, A2s+, KTs+, QJs:0.25, 98s, ATo+, KQo:0.75");
+		HandStrengthResult result = HandStrength.compute(TURN, villain, 0L, 20);
+		SplittableRandom random = new SplittableRandom(TURN);
+		for (int i = 0; i < 40; i++) {
+			long hero = new Dealer(random).deal(2, TURN);
+			assertMatchesBruteForce(result, hero, TURN, villain);
+		}
+	}
+	
+	@Test
+	void theFlopMatchesABruteForceCountForAUniformRange() {
+		HandStrengthResult result = HandStrength.compute(FLOP, Range.all());
+		for (long hero : new long[] { Hand.createHand("Ah", "Kh"), Hand.createHand("Qs", "Qd"), Hand.createHand("9s", "8s"), Hand.createHand("7c", "2c") }) {
+			assertMatchesBruteForce(result, hero, FLOP, Range.all());
+		}
+	}
+	
+	@Test
+	void everyRunoutOfTheHeroIsInTheHistogram() {
+		HandStrengthResult result = HandStrength.compute(FLOP, Range.all());
+		for (int index = 0; index < Range.COMBOS; index++) {
+			long hero = HandIndex.hand(index, 2);
+			if ((hero & FLOP) != 0) continue;
+			assertEquals(1081, Arrays.stream(result.getHistogram(hero)).sum());
+		}
+	}
+	
+	@Test
+	void equitiesMatchTheRangeEngine() {
+		Range villain = Range.parse("TT+, AQs+, 87s");
+		HandStrengthResult result = HandStrength.compute(FLOP, villain);
+		for (long hero : new long[] { Hand.createHand("Ah", "Kh"), Hand.createHand("Js", "Td"), Hand.createHand("Qs", "Qd") }) {
+			assertEquals(RangeEquity.equity(Range.of(hero), villain, FLOP).getEquity(), result.getEquity(hero), 1e-9);
+		}
+	}
+	
+	@Test
+	void theRiverHasNoPotential() {
+		HandStrengthResult result = HandStrength.compute(RIVER, Range.all(), 0L, 10);
+		long nuts = Hand.createHand("9c", "Jc");
+		assertTrue(result.getHandStrength(nuts) > 0.99);
+		long hero = Hand.createHand("Qs", "3s");
+		assertEquals(0.0, result.getPositivePotential(hero), 0.0);
+		assertEquals(0.0, result.getNegativePotential(hero), 0.0);
+		assertEquals(result.getHandStrength(hero), result.getEquity(hero), 1e-12);
+		assertEquals(result.getHandStrength(hero), result.getEffectiveHandStrength(hero), 1e-12);
+		assertEquals(1, Arrays.stream(result.getHistogram(hero)).sum());
+	}
+	
+	@Test
+	void deadCardsAreRemovedFromTheRange() {
+		long dead = Hand.createHand("As", "Ad");
+		Range villain = Range.parse("AA, KK");
+		HandStrengthResult result = HandStrength.compute(TURN, villain, dead, 10);
+		long hero = Hand.createHand("Ks", "Kd");
+		assertEquals(RangeEquity.equity(Range.of(hero), villain, TURN, dead).getEquity(), result.getEquity(hero), 1e-9);
+		assertThrows(IllegalArgumentException.class, () -> result.getEquity(Hand.createHand("As", "Kc")));
+	}
+	
+	@Test
+	void badArgumentsAreRejected() {
+		assertThrows(IllegalArgumentException.class, () -> HandStrength.compute(Hand.createHand("2h", "7h"), Range.all()));
+		assertThrows(IllegalArgumentException.class, () -> HandStrength.compute(FLOP, Range.all(), 0L, 0));
+		assertThrows(IllegalArgumentException.class, () -> HandStrength.compute(FLOP, Range.parse("22"), Hand.createHand("2c", "2d"), 10));
+		HandStrengthResult result = HandStrength.compute(RIVER, Range.all());
+		assertThrows(IllegalArgumentException.class, () -> result.getEquity(Hand.createHand("2h", "3h")));
+	}
+}
@@ -0,0 +1,64 @@
+package dk.olehougaard.poker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class HiLoEquityTest {
+	private static final long LOW_BOARD = Hand.createHand("3c", "4d", "5h", "Ks", "Kc");
+	
+	@Test
+	void aWheelAgainstTripsScoops() {
+		long[] players = { Hand.createHand("Ah", "2h"), Hand.createHand("Kd", "9h") };
+		HiLoResult result = HiLoEquity.enumerate(players, LOW_BOARD, 0L);
+		assertEquals(1, result.getRunouts());
+		assertEquals(1, result.getScoops(0));
+		assertEquals(1.0, result.getEquity(0), 0.0);
+		assertEquals(0.0, result.getEquity(1), 0.0);
+	}
+	
+	@Test
+	void theHighAndTheLowSplitThePot() {
+		long[] players = { Hand.createHand("Ah", "2h"), Hand.createHand("Kd", "5c") };
+		HiLoResult result = HiLoEquity.enumerate(players, LOW_BOARD, 0L);
+		assertEquals(1, result.getLowRunouts());
+		assertEquals(0, result.getScoops(0) + result.getScoops(1));
+		assertEquals(0.5, result.getLowShare(0), 0.0);
+		assertEquals(0.5, result.getHighShare(1), 0.0);
+	}
+	
+	@Test
+	void aSharedLowIsQuartered() {
+		long[] players = { Hand.createHand("Ah", "2h"), Hand.createHand("Ad", "2c"), Hand.createHand("Kd", "5c") };
+		HiLoResult result = HiLoEquity.enumerate(players, LOW_BOARD, 0L);
+		assertArrayEquals(new double[] { 0.25, 0.25, 0.5 }, result.getEquities(), 0.0);
+	}
+	
+	@Test
+	void withoutALowTheHighTakesThePot() {
+		long[] players = { Hand.createHand("Ah", "2h"), Hand.createHand("Qs", "Qd"), Hand.createHand("7c", "6c") };
+		long flop = Hand.createHand("Kc", "Jd", "9h");
+		HiLoResult hiLo = HiLoEquity.enumerate(players, flop, 0L);
+		MultiwayResult high = MultiwayEquity.enumerate(players, flop, 0L);
+		assertEquals(0, hiLo.getLowRunouts());
+		assertArrayEquals(high.getEquities(), hiLo.getEquities(), 1e-12);
+		for (int player = 0; player < players.length; player++) assertEquals(high.getWins(player), hiLo.getScoops(player));
+	}
+	
+	@Test
+	void theEquitiesAddUpToOne() {
+		long[] players = { Hand.createHand("Ah", "2h"), Hand.createHand("Qs", "Qd"), Hand.createHand("7c", "6c") };
+		HiLoResult result = HiLoEquity.enumerate(players, Hand.createHand("3h", "8d", "Kc"), 0L);
+		assertTrue(result.getLowRunouts() > 0);
+		double total = 0;
+		for (double equity : result.getEquities()) total += equity;
+		assertEquals(1.0, total, 1e-9);
+		assertTrue(result.getScoops(0) < result.getRunouts());
+	}
+	
+	@Test
+	void badInputIsRejected() {
+		assertThrows(IllegalArgumentException.class, () -> HiLoEquity.enumerate(new long[] { Hand.createHand("Ah", "2h") }, 0L, 0L));
+		assertThrows(IllegalArgumentException.class, () -> HiLoEquity.enumerate(new long[] { Hand.createHand("Ah", "2h"), Hand.createHand("Ah", "3d") }, 0L, 0L));
+	}
+}
@@ -0,0 +1,93 @@
+package dk.olehougaard.poker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class MetricsTest {
+	private static final long FLUSH = Hand.createHand("Ac", "Jc", "8c", "4c", "2c", "Kd", "Kh");
+	private static final long PAIR = Hand.createHand("Ac", "Jd", "8c", "4h", "2c", "Kd", "Kh");
+	
+	@Test
+	void evaluationsAreCountedPerCategory() {
+		Metrics.reset();
+		Metrics.evaluated(Evaluator.evaluate(FLUSH));
+		Metrics.evaluated(Evaluator.evaluate(PAIR));
+		Metrics.evaluated(Evaluator.evaluate(PAIR));
+		MetricsSnapshot snapshot = Metrics.snapshot();
+		assertEquals(Metrics.ENABLED ? 2 : 1, snapshot.getEvaluations(HandCategory.FLUSH));
+		assertEquals(Metrics.ENABLED ? 4 : 2, snapshot.getEvaluations(HandCategory.PAIR));
+		assertEquals(Metrics.ENABLED ? 6 : 3, snapshot.getEvaluations());
+	}
+	
+	@Test
+	void theEvaluatorsOnlyCountWhenEnabled() {
+		Metrics.reset();
+		Evaluator.evaluate(FLUSH);
+		TableEvaluator.evaluate(FLUSH);
+		new BoardContext(Hand.createHand("Jc", "8c", "4c", "2c", "Kd")).evaluate(Hand.createHand("Ac", "Kh"));
+		OmahaEvaluator.evaluate(Hand.createHand("Ac", "Qc", "Kh", "3d"), Hand.createHand("Jc", "8c", "4c", "2c", "Kd"));
+		assertEquals(Metrics.ENABLED ? 4 : 0, Metrics.snapshot().getEvaluations(HandCategory.FLUSH));
+	}
+	
+	@Test
+	void jobsAreTotalledAndPassedToListeners() {
+		Metrics.reset();
+		List<Metrics.Job> jobs = new ArrayList<>();
+		Metrics.JobListener listener = jobs::add;
+		Metrics.addListener(listener);
+		try {
+			Metrics.job("test", 990, 3, System.nanoTime());
+			Metrics.job("test", 10, 3, System.nanoTime());
+		} finally {
+			Metrics.removeListener(listener);
+		}
+		Metrics.job("test", 1, 3, System.nanoTime());
+		assertEquals(2, jobs.size());
+		assertEquals(990, jobs.get(0).getBoards());
+		assertEquals(3, jobs.get(0).getThreads());
+		assertFalse(jobs.get(0).isCacheHit());
+		assertTrue(jobs.get(0).getNanos() >= 0);
+		MetricsSnapshot snapshot = Metrics.snapshot();
+		assertEquals(3, snapshot.getJobs());
+		assertEquals(1001, snapshot.getBoards());
+	}
+	
+	@Test
+	void equityJobsAreReportedWhenEnabled() {
+		Metrics.reset();
+		List<Metrics.Job> jobs = new ArrayList<>();
+		Metrics.JobListener listener = jobs::add;
+		Metrics.addListener(listener);
+		try {
+			ExhaustiveEquity.headsUp(Hand.createHand("Ah", "Kh"), Hand.createHand("Qs", "Qd"), Hand.createHand("2h", "7h", "Qc"));
+		} finally {
+			Metrics.removeListener(listener);
+		}
+		if (Metrics.ENABLED) {
+			assertEquals(1, jobs.size());
+			assertEquals("exhaustive", jobs.get(0).getName());
+			assertEquals(990, jobs.get(0).getBoards());
+			assertEquals(2 * 990, Metrics.snapshot().getEvaluations());
+		} else {
+			assertTrue(jobs.isEmpty());
+			assertEquals(0, Metrics.snapshot().getJobs());
+		}
+	}
+	
+	@Test
+	void cacheLookupsAreSplitIntoHitsAndMisses() {
+		Metrics.reset();
+		Metrics.cached(false, System.nanoTime());
+		Metrics.cached(true, System.nanoTime());
+		Metrics.cached(true, System.nanoTime());
+		MetricsSnapshot snapshot = Metrics.snapshot();
+		assertEquals(2, snapshot.getCacheHits());
+		assertEquals(1, snapshot.getCacheMisses());
+		assertEquals(2.0 / 3, snapshot.getCacheHitRate(), 1e-12);
+		assertEquals(0, snapshot.getJobs());
+	}
+}
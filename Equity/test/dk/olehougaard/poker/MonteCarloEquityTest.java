@@ -0,0 +1,65 @@
+package dk.olehougaard.poker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class MonteCarloEquityTest {
+	private static final long NO_BUDGET = 0L;
+	
+	@Test
+	void samplingConvergesOnTheEnumeratedEquity() {
+		long hero = Hand.createHand("Ah", "As");
+		long villain = Hand.createHand("Kd", "Kc");
+		double exact = ExhaustiveEquity.headsUp(hero, villain).getEquity();
+		SampledEquity sampled = MonteCarloEquity.headsUp(hero, villain, 0L, 0L, 0.002, NO_BUDGET);
+		assertTrue(sampled.getStandardError() <= 0.002);
+		assertEquals(exact, sampled.getEquity(), 5 * sampled.getStandardError());
+	}
+	
+	@Test
+	void confidenceIntervalContainsTheEstimate() {
+		SampledEquity sampled = MonteCarloEquity.headsUp(Hand.createHand("Ah", "Kh"), Hand.createHand("Qs", "Qd"), 0L, 0L, 0.005, NO_BUDGET);
+		assertTrue(sampled.getLowerBound() < sampled.getEquity());
+		assertTrue(sampled.getEquity() < sampled.getUpperBound());
+	}
+	
+	@Test
+	void theTimeBudgetStopsSampling() {
+		long start = System.nanoTime();
+		SampledEquity sampled = MonteCarloEquity.headsUp(Hand.createHand("Ah", "Kh"), Hand.createHand("Qs", "Qd"), 0L, 0L, 0.0, 50_000_000L);
+		assertTrue(System.nanoTime() - start < 2_000_000_000L);
+		assertTrue(sampled.getSamples() > 0);
+	}
+	
+	@Test
+	void randomOpponentsAreDealt() {
+		long hero = Hand.createHand("Ah", "As");
+		SampledEquity sampled = MonteCarloEquity.sample(hero, new long[] { 0L }, 0L, 0L, 0.003, NO_BUDGET, new SplittableRandom(42));
+		assertEquals(0.85, sampled.getEquity(), 0.02);
+	}
+	
+	@Test
+	void moreOpponentsMeansLessEquity() {
+		long hero = Hand.createHand("Ah", "As");
+		SampledEquity headsUp = MonteCarloEquity.sample(hero, new long[] { 0L }, 0L, 0L, 0.003, NO_BUDGET);
+		SampledEquity threeWay = MonteCarloEquity.sample(hero, new long[] { 0L, 0L }, 0L, 0L, 0.003, NO_BUDGET);
+		assertTrue(threeWay.getEquity() < headsUp.getEquity());
+	}
+	
+	@Test
+	void aCompleteBoardIsDecided() {
+		long hero = Hand.createHand("Ah", "Kh");
+		long villain = Hand.createHand("Qs", "Qd");
+		long board = Hand.createHand("2h", "7h", "Qc", "3s", "9h");
+		SampledEquity sampled = MonteCarloEquity.headsUp(hero, villain, board, 0L, 0.001, NO_BUDGET);
+		assertEquals(1.0, sampled.getEquity(), 0.0);
+	}
+	
+	@Test
+	void aStoppingCriterionIsRequired() {
+		assertThrows(IllegalArgumentException.class, () -> MonteCarloEquity.headsUp(Hand.createHand("Ah", "Kh"), Hand.createHand("Qs", "Qd"), 0L, 0L, 0.0, NO_BUDGET));
+	}
+}
@@ -0,0 +1,83 @@
+package dk.olehougaard.poker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class MultiwayEquityTest {
+	private static final long[] THREE_WAY = { Hand.createHand("Ah", "As"), Hand.createHand("Kd", "Kc"), Hand.createHand("7h", "8h") };
+	
+	@Test
+	void headsUpMatchesTheHeadsUpEngine() {
+		long hero = Hand.createHand("Ah", "Kh");
+		long villain = Hand.createHand("Qs", "Qd");
+		long flop = Hand.createHand("2h", "7h", "Qc");
+		EquityResult headsUp = ExhaustiveEquity.headsUp(hero, villain, flop);
+		MultiwayResult multiway = MultiwayEquity.enumerate(new long[] { hero, villain }, flop, 0L);
+		assertEquals(headsUp.getTotal(), multiway.getRunouts());
+		assertEquals(headsUp.getWins(), multiway.getWins(0));
+		assertEquals(headsUp.getLosses(), multiway.getWins(1));
+		assertEquals(headsUp.getTies(), multiway.getTies(0, 2));
+		assertEquals(headsUp.getEquity(), multiway.getEquity(0), 1e-12);
+	}
+	
+	@Test
+	void potSharesAddUpToTheRunouts() {
+		MultiwayResult result = MultiwayEquity.enumerate(THREE_WAY, 0L, 0L);
+		assertEquals(Combinations.binomial(46, 5), result.getRunouts());
+		double total = 0.0;
+		for (double equity : result.getEquities()) total += equity;
+		assertEquals(1.0, total, 1e-12);
+	}
+	
+	@Test
+	void aBoardThatPlaysSplitsThePotExactly() {
+		long royal = Hand.createHand("Ah", "Kh", "Qh", "Jh", "Th");
+		long[] players = { Hand.createHand("2c", "3c"), Hand.createHand("4d", "5d"), Hand.createHand("6s", "7s") };
+		MultiwayResult result = MultiwayEquity.enumerate(players, royal, 0L);
+		for (int player = 0; player < players.length; player++) {
+			assertEquals(1L, result.getTies(player, 3));
+			assertEquals(0L, result.getWins(player));
+			assertEquals(1.0 / 3, result.getEquity(player), 0.0);
+		}
+	}
+	
+	@Test
+	void tenPlayersCanBeEnumerated() {
+		long[] players = new long[MultiwayEquity.MAX_PLAYERS];
+		Dealer dealer = new Dealer(new SplittableRandom(1));
+		long used = 0L;
+		for (int player = 0; player < players.length; player++) {
+			players[player] = dealer.deal(2, used);
+			used |= players[player];
+		}
+		MultiwayResult result = MultiwayEquity.enumerate(players, 0L, 0L);
+		assertEquals(Combinations.binomial(32, 5), result.getRunouts());
+		double total = 0.0;
+		for (double equity : result.getEquities()) total += equity;
+		assertEquals(1.0, total, 1e-9);
+	}
+	
+	@Test
+	void samplingApproachesTheEnumeratedEquities() {
+		MultiwayResult exact = MultiwayEquity.enumerate(THREE_WAY, 0L, 0L);
+		MultiwayResult sampled = MultiwayEquity.sample(THREE_WAY, 0L, 0L, 1_000_000, new SplittableRandom(2));
+		assertEquals(1_000_000, sampled.getRunouts());
+		assertArrayEquals(exact.getEquities(), sampled.getEquities(), 0.005);
+	}
+	
+	@Test
+	void samplingIsReproducibleFromTheSeed() {
+		MultiwayResult first = MultiwayEquity.sample(THREE_WAY, 0L, 0L, 100_000, new SplittableRandom(3));
+		MultiwayResult second = MultiwayEquity.sample(THREE_WAY, 0L, 0L, 100_000, new SplittableRandom(3));
+		assertArrayEquals(first.getWins(), second.getWins());
+	}
+	
+	@Test
+	void elevenPlayersAreTooMany() {
+		long[] players = new long[MultiwayEquity.MAX_PLAYERS + 1];
+		assertThrows(IllegalArgumentException.class, () -> MultiwayEquity.enumerate(players, 0L, 0L));
+	}
+}
@@ -0,0 +1,57 @@
+package dk.olehougaard.poker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class OmahaEquityTest {
+	private static final long TURN = Hand.createHand("Ah", "Kh", "7d", "2c");
+	
+	@Test
+	void theRiverIsASingleShowdown() {
+		long[] players = { Hand.createHand("Qh", "Jh", "3s", "3d"), Hand.createHand("As", "Ad", "8c", "9c") };
+		MultiwayResult result = OmahaEquity.enumerate(players, Hand.createHand("Ah", "Kh", "7h", "2c", "Td"), 0L);
+		assertEquals(1, result.getRunouts());
+		assertEquals(1, result.getWins(0));
+		assertEquals(0, result.getWins(1));
+	}
+	
+	@Test
+	void eachRunoutIsWonByTheBestOmahaHand() {
+		long[] players = { Hand.createHand("Qh", "Jh", "3s", "3d"), Hand.createHand("As", "Ad", "8c", "9c"), Hand.createHand("Kd", "Ks", "Td", "6h", "5s") };
+		long[] wins = new long[players.length];
+		long known = TURN | players[0] | players[1] | players[2];
+		for (long river = Combinations.lowest(Hand.HAND_MASK & ~known, 1); river != 0; river = Combinations.nextSubset(river, Hand.HAND_MASK & ~known)) {
+			long best = 0L;
+			int winner = -1;
+			for (int player = 0; player < players.length; player++) {
+				long rank = OmahaEvaluator.evaluate(players[player], TURN | river);
+				if (rank > best) {
+					best = rank;
+					winner = player;
+				} else if (rank == best) {
+					winner = -1;
+				}
+			}
+			if (winner >= 0) wins[winner]++;
+		}
+		MultiwayResult result = OmahaEquity.enumerate(players, TURN, 0L);
+		assertArrayEquals(wins, result.getWins());
+	}
+	
+	@Test
+	void theEquitiesAddUpToOne() {
+		long[] players = { Hand.createHand("Qh", "Jh", "Ts", "9d"), Hand.createHand("As", "Ad", "8c", "9c"), Hand.createHand("7c", "7s", "6d", "5d") };
+		MultiwayResult result = OmahaEquity.enumerate(players, Hand.createHand("Th", "8d", "2c"), 0L);
+		double total = 0;
+		for (double equity : result.getEquities()) total += equity;
+		assertEquals(1.0, total, 1e-9);
+	}
+	
+	@Test
+	void badInputIsRejected() {
+		assertThrows(IllegalArgumentException.class, () -> OmahaEquity.enumerate(new long[] { Hand.createHand("Qh", "Jh"), Hand.createHand("As", "Ad") }, TURN, 0L));
+		assertThrows(IllegalArgumentException.class, () -> OmahaEquity.enumerate(new long[] { Hand.createHand("Qh", "Jh", "3s", "3d") }, TURN, 0L));
+		assertThrows(IllegalArgumentException.class, () -> OmahaEquity.enumerate(new long[] { Hand.createHand("Qh", "Jh", "3s", "3d"), Hand.createHand("Ah", "Ad", "8c", "9c") }, TURN, 0L));
+	}
+}
@@ -0,0 +1,74 @@
+package dk.olehougaard.poker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class OmahaEvaluatorTest {
+	private static long bruteForce(long holeCards, long board) {
+		long best = 0L;
+		for (long hole = Combinations.lowest(holeCards, 2); hole != 0; hole = Combinations.nextSubset(hole, holeCards)) {
+			for (long cards = Combinations.lowest(board, 3); cards != 0; cards = Combinations.nextSubset(cards, board)) {
+				best = Math.max(best, Evaluator.evaluate(hole | cards));
+			}
+		}
+		return best;
+	}
+	
+	private static void assertMatchesBruteForce(Dealer dealer, long board, int holeCards) {
+		long hole = dealer.deal(holeCards, board);
+		assertEquals(bruteForce(hole, board), OmahaEvaluator.evaluate(hole, board), Long.toHexString(hole) + " on " + Long.toHexString(board));
+	}
+	
+	@Test
+	void randomHandsMatchTheBestTwoAndThreeSubset() {
+		Dealer dealer = new Dealer(new SplittableRandom(24));
+		for (int holeCards = OmahaEvaluator.MIN_HOLE_CARDS; holeCards <= OmahaEvaluator.MAX_HOLE_CARDS; holeCards++) {
+			for (int i = 0; i < 20000; i++) assertMatchesBruteForce(dealer, dealer.deal(ExhaustiveEquity.BOARD_SIZE), holeCards);
+		}
+	}
+	
+	@Test
+	void boardsOfEveryCategoryMatchTheBestTwoAndThreeSubset() {
+		Dealer dealer = new Dealer(new SplittableRandom(42));
+		for (HandCategory category : HandCategory.values()) {
+			for (int i = 0; i < 5000; i++) {
+				long board = dealer.deal(category, ExhaustiveEquity.BOARD_SIZE, 0L);
+				assertMatchesBruteForce(dealer, board, OmahaEvaluator.MIN_HOLE_CARDS + i % 3);
+			}
+		}
+	}
+	
+	@Test
+	void exactlyTwoHoleCardsArePlayed() {
+		long board = Hand.createHand("Ah", "Kh", "Qh", "2h", "2c");
+		long oneHeart = Hand.createHand("Th", "3c", "3d", "4s");
+		assertEquals(Evaluator.evaluate(Hand.createHand("3c", "3d", "Ah", "2h", "2c")), OmahaEvaluator.evaluate(oneHeart, board));
+		long twoHearts = Hand.createHand("Th", "Jh", "9d", "3s");
+		assertEquals(Evaluator.SF_MASK | Evaluator.BROADWAY_PATTERN, OmahaEvaluator.evaluate(twoHearts, board));
+	}
+	
+	@Test
+	void boardTripsNeedAHoleCardToMakeQuads() {
+		long board = Hand.createHand("7h", "7d", "7c", "Ks", "2c");
+		assertEquals(Evaluator.BOAT_MASK, OmahaEvaluator.evaluate(Hand.createHand("Ah", "Ad", "Qc", "Jd"), board) & Evaluator.BOAT_MASK);
+		assertEquals(Evaluator.QUAD_MASK, OmahaEvaluator.evaluate(Hand.createHand("7s", "Ad", "Qc", "Jd"), board) & Evaluator.QUAD_MASK);
+	}
+	
+	@Test
+	void wheelsNeedBothHoleCards() {
+		long board = Hand.createHand("2h", "3d", "4c", "Ks", "Kc");
+		assertEquals(Evaluator.STRAIGHT_MASK | Evaluator.WHEEL_PATTERN, OmahaEvaluator.evaluate(Hand.createHand("Ah", "5d", "Qc", "Jd"), board));
+		assertEquals(0L, OmahaEvaluator.evaluate(Hand.createHand("Ah", "Qd", "Jc", "Tc"), board) & Evaluator.STRAIGHT_MASK);
+	}
+	
+	@Test
+	void badInputIsRejected() {
+		long board = Hand.createHand("2h", "3d", "4c", "Ks", "Kc");
+		assertThrows(IllegalArgumentException.class, () -> OmahaEvaluator.evaluate(Hand.createHand("Ah", "5d"), board));
+		assertThrows(IllegalArgumentException.class, () -> OmahaEvaluator.evaluate(Hand.createHand("Ah", "5d", "Qc", "Jd"), Hand.createHand("2h", "3d", "4c")));
+		assertThrows(IllegalArgumentException.class, () -> OmahaEvaluator.evaluate(Hand.createHand("2h", "5d", "Qc", "Jd"), board));
+	}
+}
@@ -1,17 +1,562 @@
 package dk.olehougaard.poker;
 
-import java.util.Random;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
 
 public class PerformanceTest {
+	private static final int HANDS = 1 << 12;
+	
+	private static String name(HandCategory category) {
+		return category == null ? "random" : category.name().toLowerCase();
+	}
+	
+	private static long[] randomHands(HandCategory category, int cards) {
+		Dealer dealer = new Dealer(new SplittableRandom(HANDS));
+		long[] hands = new long[HANDS];
+		for (int i = 0; i < hands.length; i++) {
+			hands[i] = category == null ? dealer.deal(cards) : dealer.deal(category, cards, 0L);
+		}
+		return hands;
+	}
+	
+	private static abstract class HandsBenchmark extends Benchmark {
+		private final HandCategory category;
+		private final int cards;
+		protected long[] hands;
+		
+		HandsBenchmark(String name, HandCategory category) {
+			this(name, category, 7);
+		}
+		
+		HandsBenchmark(String name, HandCategory category, int cards) {
+			super(name);
+			this.category = category;
+			this.cards = cards;
+		}
+		
+		@Override
+		public void setup() {
+			hands = randomHands(category, cards);
+		}
+	}
+	
+	private static Benchmark evaluate(HandCategory category) {
+		return new HandsBenchmark("evaluate." + name(category), category) {
+			@Override
+			public long invoke(Blackhole blackhole) {
+				for (long hand : hands) blackhole.consume(Evaluator.evaluate(hand));
+				return hands.length;
+			}
+		};
+	}
+	
+	private static Benchmark evaluate5() {
+		return new HandsBenchmark("evaluate5.random", null, 5) {
+			@Override
+			public long invoke(Blackhole blackhole) {
+				for (long hand : hands) blackhole.consume(Evaluator.evaluate(hand));
+				return hands.length;
+			}
+		};
+	}
+	
+	private static Benchmark evaluate6() {
+		return new HandsBenchmark("evaluate6.random", null, 6) {
+			@Override
+			public long invoke(Blackhole blackhole) {
+				for (long hand : hands) blackhole.consume(Evaluator.evaluate(hand));
+				return hands.length;
+			}
+		};
+	}
+	
+	private static Benchmark evaluateHiLo() {
+		return new HandsBenchmark("evaluateHiLo.random", null) {
+			@Override
+			public long invoke(Blackhole blackhole) {
+				for (long hand : hands) blackhole.consume(Evaluator.evaluateHiLo(hand));
+				return hands.length;
+			}
+		};
+	}
+	
+	private static Benchmark evaluateHighAndLow() {
+		return new HandsBenchmark("evaluateHiLo.separate", null) {
+			@Override
+			public long invoke(Blackhole blackhole) {
+				for (long hand : hands) blackhole.consume(Evaluator.evaluate(hand) | Evaluator.evaluateLow(hand));
+				return hands.length;
+			}
+		};
+	}
+	
+	private static abstract class OmahaBenchmark extends Benchmark {
+		private final int holeCards;
+		protected long[] holes;
+		protected long[] boards;
+		
+		OmahaBenchmark(String name, int holeCards) {
+			super(name);
+			this.holeCards = holeCards;
+		}
+		
+		@Override
+		public void setup() {
+			Dealer dealer = new Dealer(new SplittableRandom(HANDS));
+			holes = new long[HANDS];
+			boards = new long[HANDS];
+			for (int i = 0; i < HANDS; i++) {
+				boards[i] = dealer.deal(ExhaustiveEquity.BOARD_SIZE);
+				holes[i] = dealer.deal(holeCards, boards[i]);
+			}
+		}
+	}
+	
+	private static Benchmark evaluateOmaha(final int holeCards) {
+		return new OmahaBenchmark("evaluateOmaha.hole" + holeCards, holeCards) {
+			@Override
+			public long invoke(Blackhole blackhole) {
+				for (int i = 0; i < HANDS; i++) blackhole.consume(OmahaEvaluator.evaluate(holes[i], boards[i]));
+				return HANDS;
+			}
+		};
+	}
+	
+	private static Benchmark evaluateOmahaSubsets(final int holeCards) {
+		return new OmahaBenchmark("evaluateOmaha.subsets" + holeCards, holeCards) {
+			@Override
+			public long invoke(Blackhole blackhole) {
+				for (int i = 0; i < HANDS; i++) {
+					long best = 0L;
+					for (long hole = Combinations.lowest(holes[i], 2); hole != 0; hole = Combinations.nextSubset(hole, holes[i])) {
+						for (long cards = Combinations.lowest(boards[i], 3); cards != 0; cards = Combinations.nextSubset(cards, boards[i])) {
+							best = Math.max(best, Evaluator.evaluate(hole | cards));
+						}
+					}
+					blackhole.consume(best);
+				}
+				return HANDS;
+			}
+		};
+	}
+	
+	private static Benchmark evaluateAny(final int cards) {
+		return new HandsBenchmark("evaluateAny.random" + cards, null, cards) {
+			@Override
+			public long invoke(Blackhole blackhole) {
+				for (long hand : hands) blackhole.consume(Evaluator.evaluateAny(hand));
+				return hands.length;
+			}
+		};
+	}
+	
+	private static Benchmark decode() {
+		return new HandsBenchmark("decode.append", null) {
+			private final StringBuilder builder = new StringBuilder();
+			
+			@Override
+			public void setup() {
+				super.setup();
+				for (int i = 0; i < hands.length; i++) hands[i] = Evaluator.evaluate(hands[i]);
+			}
+			
+			@Override
+			public long invoke(Blackhole blackhole) {
+				for (long rank : hands) {
+					builder.setLength(0);
+					blackhole.consume(RankDecoder.append(builder, rank).length());
+				}
+				return hands.length;
+			}
+		};
+	}
+	
+	private static Benchmark rankTable() {
+		return new HandsBenchmark("rankTable.random5", null, 5) {
+			private RankTable table;
+			
+			@Override
+			public void setup() {
+				super.setup();
+				try {
+					Path file = Files.createTempFile("ranks", ".bin");
+					file.toFile().deleteOnExit();
+					RankTable.build(file, 5);
+					table = RankTable.load(file);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+			
+			@Override
+			public long invoke(Blackhole blackhole) {
+				for (long hand : hands) blackhole.consume(table.ordinal(hand));
+				return hands.length;
+			}
+		};
+	}
+	
+	private static Benchmark tableEvaluate(HandCategory category) {
+		return new HandsBenchmark("tableEvaluate." + name(category), category) {
+			@Override
+			public long invoke(Blackhole blackhole) {
+				for (long hand : hands) blackhole.consume(TableEvaluator.evaluate(hand));
+				return hands.length;
+			}
+		};
+	}
+	
+	private static Benchmark batchEvaluate() {
+		return new HandsBenchmark("evaluate.batch", null) {
+			private final long[] ranks = new long[HANDS];
+			
+			@Override
+			public long invoke(Blackhole blackhole) {
+				Evaluator.evaluate(hands, ranks);
+				blackhole.consume(ranks[ranks.length - 1]);
+				return hands.length;
+			}
+		};
+	}
+	
+	private static long[] holeCards(long board) {
+		long[] deck = Combinations.cards(Hand.HAND_MASK & ~board);
+		long[] hands = new long[(int) Combinations.binomial(deck.length, 2)];
+		int i = 0;
+		for (int a = 0; a < deck.length; a++) {
+			for (int b = a + 1; b < deck.length; b++) hands[i++] = deck[a] | deck[b];
+		}
+		return hands;
+	}
+	
+	private static Benchmark boardContext(final int boardSize) {
+		return new Benchmark("boardContext.board" + boardSize) {
+			private final long board = new Dealer(new SplittableRandom(boardSize)).deal(boardSize);
+			private final long[] hands = holeCards(board);
+			
+			@Override
+			public long invoke(Blackhole blackhole) {
+				BoardContext context = new BoardContext(board);
+				for (long hand : hands) blackhole.consume(context.evaluate(hand));
+				return hands.length;
+			}
+		};
+	}
+	
+	private static Benchmark boardEvaluate(final int boardSize) {
+		return new Benchmark("boardContext.evaluateAny" + boardSize) {
+			private final long board = new Dealer(new SplittableRandom(boardSize)).deal(boardSize);
+			private final long[] hands = holeCards(board);
+			
+			@Override
+			public long invoke(Blackhole blackhole) {
+				for (long hand : hands) blackhole.consume(Evaluator.evaluateAny(board | hand));
+				return hands.length;
+			}
+		};
+	}
+	
+	private static Benchmark exhaustiveEquity(String name, final long hero, final long villain, final long board) {
+		return new Benchmark("equity.exhaustive." + name) {
+			@Override
+			public long invoke(Blackhole blackhole) {
+				EquityResult result = ExhaustiveEquity.headsUp(hero, villain, board);
+				blackhole.consume(result.getWins());
+				return result.getTotal();
+			}
+		};
+	}
+	
+	private static Benchmark sampledEquity(final double standardError) {
+		return new Benchmark("equity.monteCarlo.preflop") {
+			private final long hero = Hand.createHand("Ah", "Kh");
+			private final long villain = Hand.createHand("Qs", "Qd");
+			
+			@Override
+			public long invoke(Blackhole blackhole) {
+				SampledEquity result = MonteCarloEquity.headsUp(hero, villain, 0L, 0L, standardError, 0L);
+				blackhole.consume(result.getEquity());
+				return result.getSamples();
+			}
+		};
+	}
+	
+	private static Benchmark cachedEquity() {
+		return new Benchmark("equity.cache.flopHit") {
+			private final EquityCache cache = new EquityCache(1 << 20);
+			private final long hero = Hand.createHand("Ah", "Kh");
+			private final long villain = Hand.createHand("Qs", "Qd");
+			private final long board = Hand.createHand("2h", "7h", "Qc");
+			
+			@Override
+			public void setup() {
+				cache.headsUp(hero, villain, board);
+			}
+			
+			@Override
+			public long invoke(Blackhole blackhole) {
+				blackhole.consume(cache.headsUp(hero, villain, board).getWins());
+				return 1;
+			}
+		};
+	}
+	
+	private static Benchmark preflopLookup() {
+		return new Benchmark("equity.preflop.lookup") {
+			private static final int MATCHUPS = 1 << 12;
+			private final long[] heroes = new long[MATCHUPS];
+			private final long[] villains = new long[MATCHUPS];
+			private PreflopMatrix matrix;
+			
+			@Override
+			public void setup() {
+				Dealer dealer = new Dealer(new SplittableRandom(MATCHUPS));
+				for (int i = 0; i < MATCHUPS; i++) {
+					heroes[i] = dealer.deal(ExhaustiveEquity.HOLE_CARDS);
+					villains[i] = dealer.deal(ExhaustiveEquity.HOLE_CARDS, heroes[i]);
+				}
+				try {
+					Path file = Files.createTempFile("preflop", ".bin");
+					file.toFile().deleteOnExit();
+					PreflopMatrix.build(file, PreflopMatrix.checkpoint(file), (hero, villain) -> new EquityResult(hero & 0xff, 1, villain & 0xff));
+					matrix = PreflopMatrix.load(file);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+			
+			@Override
+			public long invoke(Blackhole blackhole) {
+				for (int i = 0; i < MATCHUPS; i++) blackhole.consume(matrix.equity(heroes[i], villains[i]));
+				return MATCHUPS;
+			}
+		};
+	}
+	
+	private static Benchmark rangeEquity() {
+		return new Benchmark("equity.range.flop") {
+			private final Range hero = Range.parse("22+, A2s+, K9s+, QTs+, JTs, ATo+, KJo+");
+			private final Range villain = Range.all();
+			private final long board = Hand.createHand("2h", "7h", "Qc");
+			
+			@Override
+			public long invoke(Blackhole blackhole) {
+				RangeEquityResult result = RangeEquity.equity(hero, villain, board);
+				blackhole.consume(result.getEquity());
+				return 1;
+			}
+		};
+	}
+	
+	private static Benchmark handStrength(String name, final long board) {
+		return new Benchmark("handStrength." + name) {
+			private final Range villain = Range.parse("22+, A2s+, K9s+, QTs+, JTs, ATo+, KJo+");
+			
+			@Override
+			public long invoke(Blackhole blackhole) {
+				HandStrengthResult result = HandStrength.compute(board, villain);
+				blackhole.consume(result.getEffectiveHandStrength(Hand.createHand("Ah", "Kh")));
+				return 1;
+			}
+		};
+	}
+	
+	private static Benchmark multiwayEquity() {
+		return new Benchmark("equity.multiway.sixHanded") {
+			private final long[] players = { Hand.createHand("Ah", "As"), Hand.createHand("Kd", "Kc"), Hand.createHand("7h", "8h"),
+					Hand.createHand("Qs", "Js"), Hand.createHand("2c", "2d"), Hand.createHand("Ad", "Tc") };
+			
+			@Override
+			public long invoke(Blackhole blackhole) {
+				MultiwayResult result = MultiwayEquity.enumerate(players, 0L, 0L);
+				blackhole.consume(result.getWins(0));
+				return result.getRunouts();
+			}
+		};
+	}
+	
+	private static Benchmark hiLoEquity() {
+		return new Benchmark("equity.hiLo.sixHanded") {
+			private final long[] players = { Hand.createHand("Ah", "As"), Hand.createHand("Kd", "Kc"), Hand.createHand("7h", "8h"),
+					Hand.createHand("Qs", "Js"), Hand.createHand("2c", "2d"), Hand.createHand("Ad", "3c") };
+			
+			@Override
+			public long invoke(Blackhole blackhole) {
+				HiLoResult result = HiLoEquity.enumerate(players, 0L, 0L);
+				blackhole.consume(result.getEquity(0));
+				return result.getRunouts();
+			}
+		};
+	}
+	
+	private static Benchmark omahaEquity() {
+		return new Benchmark("equity.omaha.flop") {
+			private final long[] players = { Hand.createHand("Ah", "As", "Kd", "Qd"), Hand.createHand("Jc", "Tc", "9h", "8h"), Hand.createHand("7s", "7d", "6c", "5c") };
+			private final long flop = Hand.createHand("Ts", "8d", "2c");
+			
+			@Override
+			public long invoke(Blackhole blackhole) {
+				MultiwayResult result = OmahaEquity.enumerate(players, flop, 0L);
+				blackhole.consume(result.getWins(0));
+				return result.getRunouts();
+			}
+		};
+	}
+	
+	private static Benchmark equitySession(final int boardSize) {
+		return new Benchmark("equity.session.sixHanded.board" + boardSize) {
+			private final long[] players = { Hand.createHand("Ah", "As"), Hand.createHand("Kd", "Kc"), Hand.createHand("7h", "8h"),
+					Hand.createHand("Qs", "Js"), Hand.createHand("2c", "2d"), Hand.createHand("Ad", "Tc") };
+			private final long[] board = Combinations.cards(Hand.createHand("9h", "Th", "2s", "Kh", "3c"));
+			private EquitySession session;
+			
+			@Override
+			public void setup() {
+				long known = 0L;
+				for (int card = 0; card < boardSize; card++) known |= board[card];
+				session = new EquitySession(players, known, 0L);
+			}
+			
+			@Override
+			public long invoke(Blackhole blackhole) {
+				MultiwayResult result = session.preview(board[boardSize]);
+				blackhole.consume(result.getWins(0));
+				return 1;
+			}
+		};
+	}
+	
+	private static Benchmark subsetEnumeration() {
+		return new Benchmark("enumeration.subsets") {
+			private final long live = Hand.HAND_MASK & ~Hand.createHand("Ah", "Kh", "Qs", "Qd");
+			
+			@Override
+			public long invoke(Blackhole blackhole) {
+				long boards = 0;
+				long board = Combinations.lowest(live, ExhaustiveEquity.BOARD_SIZE);
+				do {
+					blackhole.consume(board);
+					boards++;
+				} while ((board = Combinations.nextSubset(board, live)) != 0);
+				return boards;
+			}
+		};
+	}
+	
+	private static Benchmark historyIngestion() {
+		return new Benchmark("history.ingest") {
+			private static final int LINES = 1 << 18;
+			private Path file;
+			
+			private void appendCards(StringBuilder line, long cards) {
+				for (long card : Combinations.cards(cards)) {
+					final int bit = Long.numberOfTrailingZeros(card);
+					line.append("23456789TJQKA".charAt(bit % Hand.BITS_PER_SUIT - Hand.DEUCE_INDEX)).append("cdhs".charAt(bit / Hand.BITS_PER_SUIT));
+				}
+			}
+			
+			@Override
+			public void setup() {
+				Dealer dealer = new Dealer(new SplittableRandom(LINES));
+				StringBuilder text = new StringBuilder();
+				for (int i = 0; i < LINES; i++) {
+					long board = dealer.deal(ExhaustiveEquity.BOARD_SIZE);
+					long first = dealer.deal(ExhaustiveEquity.HOLE_CARDS, board);
+					long second = dealer.deal(ExhaustiveEquity.HOLE_CARDS, board | first);
+					text.append(i).append(' ');
+					appendCards(text, board);
+					text.append(" 5 100 0 ");
+					appendCards(text, first);
+					text.append(' ');
+					appendCards(text, second);
+					text.append('\n');
+				}
+				try {
+					file = Files.createTempFile("history", ".txt");
+					file.toFile().deleteOnExit();
+					Files.write(file, text.toString().getBytes(StandardCharsets.US_ASCII));
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+			
+			@Override
+			public long invoke(Blackhole blackhole) {
+				try {
+					HistoryResult result = HandHistory.ingest(file);
+					blackhole.consume(result.getMismatches());
+					return result.getHands();
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+		};
+	}
+	
+	private static Benchmark boardEnumeration() {
+		return new Benchmark("enumeration.boards") {
+			private final long live = Hand.HAND_MASK & ~Hand.createHand("Ah", "Kh", "Qs", "Qd");
+			
+			@Override
+			public long invoke(Blackhole blackhole) {
+				long boards = 0;
+				long board = Combinations.lowest(live, ExhaustiveEquity.BOARD_SIZE);
+				do {
+					blackhole.consume(board);
+					boards++;
+				} while ((board = Combinations.nextSubset(board, live)) != 0);
+				return boards;
+			}
+		};
+	}
+	
+	static List<Benchmark> benchmarks() {
+		List<Benchmark> benchmarks = new ArrayList<>();
+		benchmarks.add(evaluate(null));
+		for (HandCategory category : HandCategory.values()) benchmarks.add(evaluate(category));
+		benchmarks.add(evaluate5());
+		benchmarks.add(evaluate6());
+		for (int cards = 5; cards <= 7; cards++) benchmarks.add(evaluateAny(cards));
+		benchmarks.add(evaluateHiLo());
+		benchmarks.add(evaluateHighAndLow());
+		for (int holeCards = OmahaEvaluator.MIN_HOLE_CARDS; holeCards <= OmahaEvaluator.MAX_HOLE_CARDS; holeCards++) {
+			benchmarks.add(evaluateOmaha(holeCards));
+			benchmarks.add(evaluateOmahaSubsets(holeCards));
+		}
+		benchmarks.add(decode());
+		benchmarks.add(rankTable());
+		benchmarks.add(tableEvaluate(null));
+		for (HandCategory category : HandCategory.values()) benchmarks.add(tableEvaluate(category));
+		benchmarks.add(batchEvaluate());
+		for (int boardSize = BoardContext.MIN_BOARD; boardSize <= BoardContext.MAX_BOARD; boardSize++) {
+			benchmarks.add(boardContext(boardSize));
+			benchmarks.add(boardEvaluate(boardSize));
+		}
+		benchmarks.add(exhaustiveEquity("preflop", Hand.createHand("Ah", "Kh"), Hand.createHand("Qs", "Qd"), 0L));
+		benchmarks.add(exhaustiveEquity("flop", Hand.createHand("Ah", "Kh"), Hand.createHand("Qs", "Qd"), Hand.createHand("2h", "7h", "Qc")));
+		benchmarks.add(sampledEquity(0.001));
+		benchmarks.add(cachedEquity());
+		benchmarks.add(preflopLookup());
+		benchmarks.add(rangeEquity());
+		benchmarks.add(handStrength("flop", Hand.createHand("2h", "7h", "Qc")));
+		benchmarks.add(handStrength("turn", Hand.createHand("2h", "7h", "Qc", "8d")));
+		benchmarks.add(multiwayEquity());
+		benchmarks.add(hiLoEquity());
+		benchmarks.add(omahaEquity());
+		for (int boardSize = 0; boardSize < ExhaustiveEquity.BOARD_SIZE; boardSize++) benchmarks.add(equitySession(boardSize));
+		benchmarks.add(historyIngestion());
+		benchmarks.add(boardEnumeration());
+		benchmarks.add(subsetEnumeration());
+		return benchmarks;
+	}
+	
 	public static void main(String[] args) {
-		Random rand = new Random();
-		long[] hands = new long[100_000_000];
-		for(int i = 0; i < hands.length; i++) {
-			hands[i] = rand.nextLong() & Hand.HAND_MASK;
-		}
-		for(long hand: hands) Evaluator.evaluate(hand);
-		long start = System.currentTimeMillis();
-		for(long hand: hands) Evaluator.evaluate(hand);
-		System.out.println((System.currentTimeMillis() - start) / 100.0);
+		new BenchmarkRunner(args).run(benchmarks());
 	}
 }
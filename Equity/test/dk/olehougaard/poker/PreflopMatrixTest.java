@@ -0,0 +1,132 @@
+package dk.olehougaard.poker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class PreflopMatrixTest {
+	private static final double TOLERANCE = 1.0 / BitUtils.SHORT_MASK;
+	
+	private static long rankSum(long cards) {
+		long sum = 0;
+		for (long card : Combinations.cards(cards)) sum += Long.numberOfTrailingZeros(card) % Hand.BITS_PER_SUIT;
+		return sum;
+	}
+	
+	private static EquityResult rankEquity(long hero, long villain) {
+		return new EquityResult(rankSum(hero), 1, rankSum(villain));
+	}
+	
+	private static Path file() throws IOException {
+		Path file = Files.createTempFile("preflop", ".bin");
+		file.toFile().deleteOnExit();
+		PreflopMatrix.checkpoint(file).toFile().deleteOnExit();
+		return file;
+	}
+	
+	private static PreflopMatrix build(PreflopMatrix.Equity equity) throws IOException {
+		Path file = file();
+		PreflopMatrix.build(file, PreflopMatrix.checkpoint(file), equity);
+		return PreflopMatrix.load(file);
+	}
+	
+	@Test
+	void everyMatchupHasTheInjectedEquity() throws IOException {
+		PreflopMatrix matrix = build(PreflopMatrixTest::rankEquity);
+		for (int hero = 0; hero < PreflopMatrix.COMBOS; hero++) {
+			long heroCards = HandIndex.hand(hero, 2);
+			for (int villain = 0; villain < PreflopMatrix.COMBOS; villain++) {
+				long villainCards = HandIndex.hand(villain, 2);
+				if ((heroCards & villainCards) != 0) continue;
+				assertEquals(rankEquity(heroCards, villainCards).getEquity(), matrix.equity(heroCards, villainCards), TOLERANCE);
+			}
+		}
+	}
+	
+	@Test
+	void onlyOneMatchupPerIsomorphismClassIsEvaluated() throws IOException {
+		AtomicInteger calls = new AtomicInteger();
+		build((hero, villain) -> {
+			calls.incrementAndGet();
+			return rankEquity(hero, villain);
+		});
+		assertEquals(PreflopMatrix.matchupCount(), calls.get());
+		assertTrue(calls.get() < 1326 * 1225 / 20);
+	}
+	
+	@Test
+	void classEquitiesAverageTheMatchups() throws IOException {
+		PreflopMatrix matrix = build(PreflopMatrixTest::rankEquity);
+		long[] aces = { Hand.createHand("Ac", "Ad"), Hand.createHand("Ac", "Ah"), Hand.createHand("Ac", "As"), Hand.createHand("Ad", "Ah"), Hand.createHand("Ad", "As"), Hand.createHand("Ah", "As") };
+		long[] suitedConnectors = { Hand.createHand("8c", "7c"), Hand.createHand("8d", "7d"), Hand.createHand("8h", "7h"), Hand.createHand("8s", "7s") };
+		double sum = 0;
+		for (long ace : aces) {
+			for (long connector : suitedConnectors) sum += rankEquity(ace, connector).getEquity();
+		}
+		assertEquals(sum / (aces.length * suitedConnectors.length), matrix.classEquity("AA", "87s"), TOLERANCE);
+		assertEquals(1.0 - matrix.classEquity("AA", "87s"), matrix.classEquity("87s", "AA"), 2 * TOLERANCE);
+		assertEquals(0.5, matrix.classEquity("AKo", "AKo"), TOLERANCE);
+	}
+	
+	@Test
+	void handClassesCoverTheGrid() {
+		int[] counts = new int[PreflopMatrix.CLASSES];
+		for (int combo = 0; combo < PreflopMatrix.COMBOS; combo++) counts[PreflopMatrix.handClass(HandIndex.hand(combo, 2))]++;
+		assertEquals(78 * 4 + 78 * 12 + 13 * 6, Arrays.stream(counts).sum());
+		for (int handClass = 0; handClass < PreflopMatrix.CLASSES; handClass++) {
+			String name = PreflopMatrix.className(handClass);
+			assertEquals(handClass, PreflopMatrix.handClass(name));
+			assertEquals(name.length() == 2 ? 6 : name.endsWith("s") ? 4 : 12, counts[handClass]);
+		}
+		assertEquals(PreflopMatrix.handClass("AKs"), PreflopMatrix.handClass(Hand.createHand("Kh", "Ah")));
+		assertEquals(PreflopMatrix.handClass("KAo"), PreflopMatrix.handClass(Hand.createHand("Kh", "Ac")));
+		assertEquals("T9s", PreflopMatrix.className(PreflopMatrix.handClass("9Ts")));
+	}
+	
+	@Test
+	void anInterruptedBuildResumesFromTheCheckpoint() throws IOException {
+		Path file = file();
+		Path checkpoint = PreflopMatrix.checkpoint(file);
+		AtomicInteger calls = new AtomicInteger();
+		int limit = 10_000;
+		assertThrows(IllegalStateException.class, () -> PreflopMatrix.build(file, checkpoint, (hero, villain) -> {
+			if (calls.incrementAndGet() > limit) throw new IllegalStateException("Interrupted");
+			return rankEquity(hero, villain);
+		}, 1000));
+		assertTrue(Files.exists(checkpoint));
+		AtomicInteger resumed = new AtomicInteger();
+		PreflopMatrix.build(file, checkpoint, (hero, villain) -> {
+			resumed.incrementAndGet();
+			return rankEquity(hero, villain);
+		}, 1000);
+		assertFalse(Files.exists(checkpoint));
+		assertEquals(PreflopMatrix.matchupCount() - limit, resumed.get());
+		PreflopMatrix matrix = PreflopMatrix.load(file);
+		long hero = Hand.createHand("Ah", "Kh"), villain = Hand.createHand("Qs", "Qd");
+		assertEquals(rankEquity(hero, villain).getEquity(), matrix.equity(hero, villain), TOLERANCE);
+	}
+	
+	@Test
+	void overlappingHoleCardsAreRejected() throws IOException {
+		PreflopMatrix matrix = build(PreflopMatrixTest::rankEquity);
+		assertThrows(IllegalArgumentException.class, () -> matrix.equity(Hand.createHand("Ah", "Kh"), Hand.createHand("Ah", "Qd")));
+		assertThrows(IllegalArgumentException.class, () -> matrix.equity(Hand.createHand("Ah"), Hand.createHand("Qs", "Qd")));
+		assertThrows(IllegalArgumentException.class, () -> PreflopMatrix.handClass("AKx"));
+		assertThrows(IllegalArgumentException.class, () -> matrix.classEquity(PreflopMatrix.CLASSES, 0));
+	}
+	
+	@Test
+	void otherFilesAreRejected() throws IOException {
+		Path file = file();
+		Files.write(file, new byte[64]);
+		assertThrows(IOException.class, () -> PreflopMatrix.load(file));
+		Files.write(PreflopMatrix.checkpoint(file), new byte[64]);
+		assertThrows(IOException.class, () -> PreflopMatrix.build(file, PreflopMatrix.checkpoint(file), PreflopMatrixTest::rankEquity));
+	}
+}
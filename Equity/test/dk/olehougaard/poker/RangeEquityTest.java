@@ -0,0 +1,92 @@
+package dk.olehougaard.poker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class RangeEquityTest {
+	private static final long FLOP = Hand.createHand("2h", "7h", "Qc");
+	
+	@Test
+	void singleCombosMatchTheHeadsUpEngine() {
+		long hero = Hand.createHand("Ah", "Kh");
+		long villain = Hand.createHand("Qs", "Qd");
+		EquityResult exact = ExhaustiveEquity.headsUp(hero, villain, FLOP);
+		RangeEquityResult ranges = RangeEquity.equity(Range.of(hero), Range.of(villain), FLOP);
+		assertEquals(exact.getWins(), ranges.getWins(), 0.0);
+		assertEquals(exact.getTies(), ranges.getTies(), 0.0);
+		assertEquals(exact.getLosses(), ranges.getLosses(), 0.0);
+	}
+	
+	@Test
+	void rangesAreTheWeightedSumOfTheirCombos() {
+		long[] heroes = { Hand.createHand("Ah", "Kh"), Hand.createHand("As", "Ks") };
+		long villain = Hand.createHand("Qs", "Qd");
+		double wins = 0, total = 0;
+		for (long hero : heroes) {
+			EquityResult result = ExhaustiveEquity.headsUp(hero, villain, FLOP);
+			wins += result.getWins();
+			total += result.getTotal();
+		}
+		RangeEquityResult ranges = RangeEquity.equity(Range.of(heroes), Range.of(villain), FLOP);
+		assertEquals(wins, ranges.getWins(), 0.0);
+		assertEquals(total, ranges.getTotal(), 0.0);
+	}
+	
+	@Test
+	void blockedCombosAreDropped() {
+		Range hero = Range.parse("QQ");
+		RangeEquityResult result = RangeEquity.equity(hero, Range.parse("AKs"), FLOP);
+		assertEquals(3 * 4 * 990, result.getTotal(), 0.0);
+	}
+	
+	@Test
+	void weightedRangesMatchThePairwiseSum() {
+		Range hero = Range.parse("AK:0.5, 77, QJs:0.25");
+		Range villain = Range.parse("QQ, 72s:0.75, AQo, 77:0.5");
+		double wins = 0, ties = 0, losses = 0;
+		for (int h = 0; h < Range.COMBOS; h++) {
+			for (int v = 0; v < Range.COMBOS; v++) {
+				long heroCards = HandIndex.hand(h, 2), villainCards = HandIndex.hand(v, 2);
+				double weight = hero.weight(h) * villain.weight(v);
+				if (weight == 0 || ((heroCards | FLOP) & villainCards) != 0 || (heroCards & FLOP) != 0) continue;
+				EquityResult result = ExhaustiveEquity.headsUp(heroCards, villainCards, FLOP);
+				wins += weight * result.getWins();
+				ties += weight * result.getTies();
+				losses += weight * result.getLosses();
+			}
+		}
+		RangeEquityResult ranges = RangeEquity.equity(hero, villain, FLOP);
+		assertEquals(wins, ranges.getWins(), 1e-6);
+		assertEquals(ties, ranges.getTies(), 1e-6);
+		assertEquals(losses, ranges.getLosses(), 1e-6);
+	}
+	
+	@Test
+	void theEquitiesOfBothRangesAddUpToOne() {
+		Range hero = Range.parse("TT+, AKs, A5s-A2s, KQo");
+		Range villain = Range.parse("22+, AT+, KJs+");
+		double forward = RangeEquity.equity(hero, villain, FLOP).getEquity();
+		double backward = RangeEquity.equity(villain, hero, FLOP).getEquity();
+		assertEquals(1.0, forward + backward, 1e-9);
+	}
+	
+	@Test
+	void scalingWeightsDoesNotChangeEquity() {
+		Range villain = Range.parse("22+, AT+");
+		double full = RangeEquity.equity(Range.parse("AK, QQ"), villain, FLOP).getEquity();
+		double half = RangeEquity.equity(Range.parse("AK:0.5, QQ:0.5"), villain, FLOP).getEquity();
+		assertEquals(full, half, 1e-9);
+	}
+	
+	@Test
+	void deadCardsBlockCombos() {
+		RangeEquityResult result = RangeEquity.equity(Range.parse("QQ"), Range.parse("AKs"), FLOP, Hand.createHand("Qs"));
+		assertEquals(1 * 4 * 946, result.getTotal(), 0.0);
+	}
+	
+	@Test
+	void anEmptyRangeIsRejected() {
+		assertThrows(IllegalArgumentException.class, () -> RangeEquity.equity(Range.parse("22"), Range.parse("AA"), Hand.createHand("2h", "2d", "2c")));
+	}
+}
@@ -0,0 +1,79 @@
+package dk.olehougaard.poker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class RangeTest {
+	@Test
+	void aPocketPairHasSixCombos() {
+		assertEquals(6, Range.parse("AA").size());
+	}
+	
+	@Test
+	void suitedAndOffsuitHandsHaveTheirCombos() {
+		assertEquals(4, Range.parse("AKs").size());
+		assertEquals(12, Range.parse("AKo").size());
+		assertEquals(16, Range.parse("AK").size());
+	}
+	
+	@Test
+	void plusExtendsPairsUpToAces() {
+		assertEquals(30, Range.parse("TT+").size());
+		assertEquals(78, Range.parse("22+").size());
+		assertTrue(Range.parse("TT+").weight(Hand.createHand("Ah", "Ad")) > 0);
+		assertEquals(0.0, Range.parse("TT+").weight(Hand.createHand("9h", "9d")));
+	}
+	
+	@Test
+	void plusExtendsKickersUpToTheFirstRank() {
+		assertEquals(48, Range.parse("A2s+").size());
+		assertEquals(36, Range.parse("KTo+").size());
+		assertEquals(0.0, Range.parse("KTo+").weight(Hand.createHand("Ah", "Kd")));
+	}
+	
+	@Test
+	void dashesSpanKickers() {
+		Range range = Range.parse("A5s-A2s");
+		assertEquals(16, range.size());
+		assertEquals(1.0, range.weight(Hand.createHand("Ah", "3h")));
+		assertEquals(0.0, range.weight(Hand.createHand("Ah", "6h")));
+	}
+	
+	@Test
+	void dashesSpanPairs() {
+		assertEquals(24, Range.parse("22-55").size());
+	}
+	
+	@Test
+	void commasCombineRanges() {
+		assertEquals(62, Range.parse("TT+, AKs, A5s-A2s, KQo").size());
+	}
+	
+	@Test
+	void specificCombosCanBeGiven() {
+		Range range = Range.parse("AsKd");
+		assertEquals(1, range.size());
+		assertEquals(1.0, range.weight(Hand.createHand("As", "Kd")));
+	}
+	
+	@Test
+	void combosCanBeWeighted() {
+		Range range = Range.parse("AA, KK:0.5");
+		assertEquals(1.0, range.weight(Hand.createHand("Ah", "Ad")));
+		assertEquals(0.5, range.weight(Hand.createHand("Kh", "Kd")));
+	}
+	
+	@Test
+	void theFullRangeHasEveryCombo() {
+		assertEquals(Range.COMBOS, Range.all().size());
+	}
+	
+	@Test
+	void nonsenseIsRejected() {
+		assertThrows(IllegalArgumentException.class, () -> Range.parse("AX"));
+		assertThrows(IllegalArgumentException.class, () -> Range.parse("AAs"));
+		assertThrows(IllegalArgumentException.class, () -> Range.parse("AKs-QJs"));
+		assertThrows(IllegalArgumentException.class, () -> Range.parse("AK:x"));
+	}
+}
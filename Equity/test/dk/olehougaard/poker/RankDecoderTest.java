@@ -0,0 +1,66 @@
+package dk.olehougaard.poker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class RankDecoderTest {
+	private static String describe(String... cards) {
+		return RankDecoder.toString(Evaluator.evaluate(Hand.createHand(cards)));
+	}
+	
+	@Test
+	void everyCategoryIsDescribed() {
+		assertEquals("Straight flush A", describe("Ah", "Kh", "Qh", "Jh", "Th", "2c", "3d"));
+		assertEquals("Quads 7, K", describe("7h", "7s", "7d", "7c", "Kh", "2c", "3d"));
+		assertEquals("Full house Q over 9", describe("Qh", "Qs", "Qd", "9c", "9h", "9d", "3d"));
+		assertEquals("Flush K, J 8 4 3", describe("Kd", "Jd", "8d", "4d", "3d", "2d", "As"));
+		assertEquals("Straight 5", describe("Ah", "2s", "3d", "4c", "5h", "Kd", "Jc"));
+		assertEquals("Trips 4, A K", describe("4h", "4s", "4d", "Ac", "Kh", "2d", "9c"));
+		assertEquals("Two pair J and 6, T", describe("Jh", "Js", "6d", "6c", "Th", "2d", "2c"));
+		assertEquals("Pair A, Q 9 8", describe("Ah", "As", "Qd", "9c", "8h", "2d", "3c"));
+		assertEquals("High card A, Q 9 8 5", describe("Ah", "4s", "Qd", "9c", "8h", "2d", "5c"));
+	}
+	
+	@Test
+	void fieldsAreDecoded() {
+		long rank = Evaluator.evaluate(Hand.createHand("Jh", "Js", "6d", "6c", "Th", "2d", "2c"));
+		assertEquals(HandCategory.TWO_PAIR.ordinal(), RankDecoder.category(rank));
+		assertEquals(Hand.JACK_INDEX, RankDecoder.primary(rank));
+		assertEquals(Hand.SIX_INDEX, RankDecoder.secondary(rank));
+		assertEquals(1 << Hand.TEN_INDEX, RankDecoder.kickers(rank));
+	}
+	
+	@Test
+	void kickersAreWrittenHighestFirst() {
+		long rank = Evaluator.evaluate(Hand.createHand("Ah", "As", "Qd", "9c", "8h", "2d", "3c"));
+		int[] kickers = new int[RankDecoder.MAX_KICKERS];
+		assertEquals(3, RankDecoder.kickers(rank, kickers));
+		assertEquals(Hand.QUEEN_INDEX, kickers[0]);
+		assertEquals(Hand.NINE_INDEX, kickers[1]);
+		assertEquals(Hand.EIGHT_INDEX, kickers[2]);
+	}
+	
+	@Test
+	void unpairedCategoriesHaveNoSecondaryRank() {
+		long rank = Evaluator.evaluate(Hand.createHand("Ah", "2s", "3d", "4c", "5h", "Kd", "Jc"));
+		assertEquals(RankDecoder.NONE, RankDecoder.secondary(rank));
+		assertEquals(0, RankDecoder.kickers(rank));
+	}
+	
+	@Test
+	void decodingAgreesWithTheKickerSet() {
+		Dealer dealer = new Dealer(new SplittableRandom(5));
+		int[] kickers = new int[RankDecoder.MAX_KICKERS];
+		for (int i = 0; i < 100_000; i++) {
+			long rank = Evaluator.evaluate(dealer.deal(7));
+			int count = RankDecoder.kickers(rank, kickers);
+			@SuppressWarnings("deprecation")
+			java.util.Set<Short> expected = BitUtils.toSet((short) RankDecoder.kickers(rank));
+			assertEquals(expected.size(), count);
+			for (int k = 0; k < count; k++) assertTrue(expected.contains((short) kickers[k]));
+		}
+	}
+}
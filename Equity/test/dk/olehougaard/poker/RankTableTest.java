@@ -0,0 +1,64 @@
+package dk.olehougaard.poker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class RankTableTest {
+	private static Path build(int cards) throws IOException {
+		Path file = Files.createTempFile("ranks", ".bin");
+		file.toFile().deleteOnExit();
+		RankTable.build(file, cards);
+		return file;
+	}
+	
+	@Test
+	void thereAreAsManyOrdinalsAsDistinctFiveCardRanks() {
+		long[] ranks = RankTable.distinctRanks();
+		assertEquals(7462, ranks.length);
+		for (int i = 1; i < ranks.length; i++) assertTrue(ranks[i - 1] < ranks[i]);
+	}
+	
+	@Test
+	void aFiveCardTableMatchesTheEvaluator() throws IOException {
+		RankTable table = RankTable.load(build(5));
+		assertEquals(5, table.getCards());
+		assertEquals(0L, table.verify());
+	}
+	
+	@Test
+	void ordinalsOrderHandsLikeTheEvaluator() throws IOException {
+		RankTable table = RankTable.load(build(5));
+		Dealer dealer = new Dealer(new SplittableRandom(1));
+		for (int i = 0; i < 100_000; i++) {
+			long first = dealer.deal(5);
+			long second = dealer.deal(5);
+			assertEquals(Long.signum(Evaluator.evaluate(first) - Evaluator.evaluate(second)), Integer.signum(table.ordinal(first) - table.ordinal(second)));
+		}
+	}
+	
+	@Test
+	void buildingTwiceGivesTheSameFile() throws IOException {
+		assertTrue(Arrays.equals(Files.readAllBytes(build(5)), Files.readAllBytes(build(5))));
+	}
+	
+	@Test
+	void aHandOfTheWrongSizeIsRejected() throws IOException {
+		RankTable table = RankTable.load(build(5));
+		assertThrows(IllegalArgumentException.class, () -> table.ordinal(Hand.createHand("Ah", "Kh", "Qh", "Jh", "Th", "9h")));
+	}
+	
+	@Test
+	void otherFilesAreRejected() throws IOException {
+		Path file = Files.createTempFile("ranks", ".bin");
+		file.toFile().deleteOnExit();
+		Files.write(file, new byte[64]);
+		assertThrows(IOException.class, () -> RankTable.load(file));
+	}
+}
@@ -0,0 +1,117 @@
+package dk.olehougaard.poker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class SuitIsomorphismTest {
+	private static long[] hands(int cards) {
+		long[] hands = new long[(int) Combinations.binomial(Long.bitCount(Hand.HAND_MASK), cards)];
+		long hand = Combinations.lowest(Hand.HAND_MASK, cards);
+		int i = 0;
+		do {
+			hands[i++] = hand;
+		} while ((hand = Combinations.nextSubset(hand, Hand.HAND_MASK)) != 0);
+		return hands;
+	}
+	
+	private static void assertClasses(int classes, long[] hands) {
+		int canonical = 0;
+		long weights = 0;
+		for (long hand : hands) {
+			long[] tuple = { hand };
+			int weight = SuitIsomorphism.canonicalize(tuple);
+			if (tuple[0] == hand) {
+				canonical++;
+				weights += weight;
+			}
+		}
+		assertEquals(classes, canonical);
+		assertEquals(hands.length, weights);
+	}
+	
+	@Test
+	void thereAre169StartingHands() {
+		assertClasses(169, hands(2));
+	}
+	
+	@Test
+	void thereAre1755Flops() {
+		assertClasses(1755, hands(3));
+	}
+	
+	@Test
+	void holeCardsAndFlopsHaveTheKnownNumberOfClasses() {
+		long[] holes = hands(2);
+		long[] flops = hands(3);
+		long[] tuple = new long[2];
+		int canonical = 0;
+		long weights = 0;
+		for (long hole : holes) {
+			for (long flop : flops) {
+				if ((hole & flop) != 0) continue;
+				tuple[0] = hole;
+				tuple[1] = flop;
+				int weight = SuitIsomorphism.canonicalize(tuple);
+				if (tuple[0] == hole && tuple[1] == flop) {
+					canonical++;
+					weights += weight;
+				}
+			}
+		}
+		assertEquals(1_286_792, canonical);
+		assertEquals(1326L * 19600, weights);
+	}
+	
+	@Test
+	void pocketPairsAndSuitedAndOffsuitHandsHaveTheirCombinations() {
+		assertEquals(6, SuitIsomorphism.canonicalize(new long[] { Hand.createHand("Ah", "As") }));
+		assertEquals(4, SuitIsomorphism.canonicalize(new long[] { Hand.createHand("Ah", "Kh") }));
+		assertEquals(12, SuitIsomorphism.canonicalize(new long[] { Hand.createHand("Ah", "Ks") }));
+	}
+	
+	@Test
+	void isomorphicHandsHaveTheSameCanonicalForm() {
+		long[] first = { Hand.createHand("Ah", "Kh"), Hand.createHand("Qs", "Qd"), Hand.createHand("2h", "7h", "Qc") };
+		long[] second = { Hand.createHand("As", "Ks"), Hand.createHand("Qc", "Qh"), Hand.createHand("2s", "7s", "Qd") };
+		SuitIsomorphism.canonicalize(first);
+		SuitIsomorphism.canonicalize(second);
+		assertArrayEquals(first, second);
+	}
+	
+	@Test
+	void canonicalizingPreservesEquity() {
+		long[] hands = { Hand.createHand("Ah", "Kh"), Hand.createHand("Qs", "Qd"), Hand.createHand("2h", "7h", "Qc") };
+		EquityResult before = ExhaustiveEquity.headsUp(hands[0], hands[1], hands[2]);
+		SuitIsomorphism.canonicalize(hands);
+		EquityResult after = ExhaustiveEquity.headsUp(hands[0], hands[1], hands[2]);
+		assertEquals(before.getWins(), after.getWins());
+		assertEquals(before.getTies(), after.getTies());
+	}
+	
+	@Test
+	void canonicalizingIsIdempotent() {
+		Dealer dealer = new Dealer(new SplittableRandom(1));
+		for (int i = 0; i < 100_000; i++) {
+			long hole = dealer.deal(2);
+			long[] tuple = { hole, dealer.deal(3, hole) };
+			int weight = SuitIsomorphism.canonicalize(tuple);
+			long[] again = tuple.clone();
+			assertEquals(weight, SuitIsomorphism.canonicalize(again));
+			assertArrayEquals(tuple, again);
+		}
+	}
+	
+	@Test
+	void aSingleHandCanonicalizesLikeATuple() {
+		Dealer dealer = new Dealer(new SplittableRandom(2));
+		for (int i = 0; i < 100_000; i++) {
+			long[] tuple = { dealer.deal(5) };
+			long canonical = SuitIsomorphism.canonicalize(tuple[0]);
+			SuitIsomorphism.canonicalize(tuple);
+			assertEquals(tuple[0], canonical);
+		}
+	}
+}
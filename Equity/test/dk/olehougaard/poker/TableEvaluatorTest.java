@@ -0,0 +1,61 @@
+package dk.olehougaard.poker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class TableEvaluatorTest {
+	private static void assertSameAsEvaluator(String... cards) {
+		long hand = Hand.createHand(cards);
+		assertEquals(Evaluator.evaluate(hand), TableEvaluator.evaluate(hand));
+	}
+
+	@Test
+	void randomHandsEvaluateLikeTheEvaluator() {
+		Dealer dealer = new Dealer(new SplittableRandom(7));
+		for (int i = 0; i < 1_000_000; i++) {
+			long hand = dealer.deal(7);
+			assertEquals(Evaluator.evaluate(hand), TableEvaluator.evaluate(hand));
+		}
+	}
+	
+	@Test
+	void everyCategoryEvaluatesLikeTheEvaluator() {
+		Dealer dealer = new Dealer(new SplittableRandom(7));
+		for (HandCategory category : HandCategory.values()) {
+			for (int i = 0; i < 10_000; i++) {
+				long hand = dealer.deal(category, 7, 0L);
+				assertEquals(Evaluator.evaluate(hand), TableEvaluator.evaluate(hand));
+			}
+		}
+	}
+	
+	@Test
+	void straightFlushesEvaluateLikeTheEvaluator() {
+		assertSameAsEvaluator("Ac", "Js", "Ts", "2h", "9s", "8s", "7s");
+		assertSameAsEvaluator("Ac", "Js", "4c", "2c", "9s", "3c", "5c");
+		assertSameAsEvaluator("Ac", "Kc", "Qc", "Jc", "Tc", "9c", "8c");
+	}
+	
+	@Test
+	void flushesEvaluateLikeTheEvaluator() {
+		assertSameAsEvaluator("Qc", "8c", "Tc", "Jc", "Ac", "3c", "Ad");
+		assertSameAsEvaluator("Qc", "8c", "Tc", "Jc", "Ac", "3c", "2c");
+		assertSameAsEvaluator("Qh", "Jh", "Th", "9h", "7h", "8d", "Ad");
+	}
+	
+	@Test
+	void straightsEvaluateLikeTheEvaluator() {
+		assertSameAsEvaluator("3s", "Jd", "5c", "Jc", "2c", "Ah", "4d");
+		assertSameAsEvaluator("Qs", "Jd", "Tc", "Jc", "Kc", "Ah", "4d");
+		assertSameAsEvaluator("6s", "Jd", "5c", "Jc", "2c", "3h", "4d");
+	}
+	
+	@Test
+	void madeHandsBeatFlushesLikeTheEvaluator() {
+		assertSameAsEvaluator("Qc", "Qd", "Qh", "Jc", "Ac", "3c", "Ad");
+		assertSameAsEvaluator("Qc", "Qd", "Qh", "Qs", "Ac", "3c", "2c");
+	}
+}